@@ -0,0 +1 @@
+class Main {}
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.domain;
+
+/**
+ * Models the remote build cache configuration from the project build file or the global configuration.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildCacheConfiguration {
+  /**
+   * The number of milliseconds to wait for a connection to the remote cache.
+   */
+  public int connectTimeout = 1_000;
+
+  public String password;
+
+  /**
+   * Determines if the outputs of targets are uploaded to the remote cache. This is usually only enabled on CI servers.
+   */
+  public boolean push;
+
+  /**
+   * The number of milliseconds to wait for data from the remote cache. This also limits the total time of a single
+   * download or upload so that a slow cache never makes the build slower than running the targets.
+   */
+  public int readTimeout = 10_000;
+
+  public String url;
+
+  public String username;
+
+  public BuildCacheConfiguration() {
+  }
+
+  public BuildCacheConfiguration(String url, boolean push) {
+    this.url = url;
+    this.push = push;
+  }
+}
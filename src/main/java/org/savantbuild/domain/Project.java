@@ -55,8 +55,14 @@ public class Project {
 
   public ArtifactGraph artifactGraph;
 
+  public BuildCacheConfiguration buildCache;
+
+  public Path buildFile;
+
   public Dependencies dependencies;
 
+  public int fetchConcurrency = 1;
+
   public String group;
 
   public String name;
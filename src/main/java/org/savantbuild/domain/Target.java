@@ -29,10 +29,21 @@ public class Target {
 
   public String description;
 
+  /**
+   * The files and directories (relative to the project directory) that the target reads. If these are set, the target
+   * is skipped when none of its inputs or outputs have changed since it last ran.
+   */
+  public List<String> inputs;
+
   public Runnable invocation;
 
   public String name;
 
+  /**
+   * The files and directories (relative to the project directory) that the target produces.
+   */
+  public List<String> outputs;
+
   public Target() {
   }
 
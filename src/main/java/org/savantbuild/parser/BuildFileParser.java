@@ -67,4 +67,19 @@ public interface BuildFileParser {
       ArtifactMissingException, BuildRunException, BuildFailureException, CompatibilityException, CyclicException,
       LicenseException, MD5Exception, ParseException, PluginLoadException, ProcessFailureException, PublishException,
       VersionException;
+
+  /**
+   * Parses the declarative model of the given file, which is everything except the target invocations and plugins. The
+   * model is used by the invocations that only inspect the targets, like {@code --listTargets} and {@code --plan}, and
+   * implementations can load it from a cache instead of evaluating the build file. By default, this parses the file.
+   *
+   * @param file                 The file.
+   * @param runtimeConfiguration The runtime configuration that is passed to the build script.
+   * @return The Project, whose targets might not be runnable.
+   * @throws ParseException If the build file can not be parsed. See {@link #parse(Path, RuntimeConfiguration)} for the
+   * other exceptions.
+   */
+  default Project parseModel(Path file, RuntimeConfiguration runtimeConfiguration) throws ParseException {
+    return parse(file, runtimeConfiguration);
+  }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.tools.GroovyClass;
+import org.savantbuild.output.Output;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovySystem;
+
+/**
+ * Compiles build files and caches the generated bytecode on disk so that the Groovy compiler only runs when the build
+ * file changes. The cache key is a SHA-256 hash of:
+ * <ul>
+ *   <li>The contents and the file name of the build file (the file name is the name of the script class)</li>
+ *   <li>The version of Savant and the version of Groovy</li>
+ *   <li>The compiler configuration</li>
+ * </ul>
+ * <p>
+ * An entry contains the bytecode of the script class and all of its closure classes. The classes are defined by a
+ * small class loader straight from the cached bytes. If an entry can't be read, the build file is compiled again.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildFileCompiler {
+  private final Path cacheDirectory;
+
+  private final CompilerConfiguration compilerConfig;
+
+  private final Output output;
+
+  public BuildFileCompiler(Output output, Path cacheDirectory) {
+    this.output = output;
+    this.cacheDirectory = cacheDirectory;
+    this.compilerConfig = new CompilerConfiguration();
+    this.compilerConfig.setScriptBaseClass(ProjectBuildFile.class.getName());
+  }
+
+  /**
+   * Loads the build file class from the cache or compiles the build file if the cache doesn't contain it.
+   *
+   * @param buildFile The build file.
+   * @param key       The cache key from {@link #key(Path)}.
+   * @return The build file class.
+   * @throws IOException If the build file can't be read.
+   */
+  public Class<?> compile(Path buildFile, String key) throws IOException {
+    Path cacheFile = cacheDirectory.resolve(key + ".classes");
+    Map<String, byte[]> classes = read(cacheFile);
+    if (classes != null) {
+      output.debugln("Loading the compiled build file [%s] from [%s]", buildFile, cacheFile);
+      try {
+        return load(classes);
+      } catch (ClassNotFoundException | LinkageError e) {
+        output.debugln("The compiled build file in [%s] is invalid. Compiling the build file again", cacheFile);
+      }
+    }
+
+    classes = compile(buildFile);
+    write(cacheFile, classes);
+    try {
+      return load(classes);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("The Groovy compiler didn't generate the script class for [" + buildFile + "]", e);
+    }
+  }
+
+  /**
+   * Computes the cache key of the build file.
+   *
+   * @param buildFile The build file.
+   * @return The key.
+   * @throws IOException If the build file can't be read.
+   */
+  public String key(Path buildFile) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+
+    update(digest, buildFile.getFileName().toString());
+    update(digest, savantVersion());
+    update(digest, GroovySystem.getVersion());
+    update(digest, compilerConfig.getScriptBaseClass());
+    update(digest, compilerConfig.getTargetBytecode());
+    update(digest, compilerConfig.getSourceEncoding());
+    digest.update(Files.readAllBytes(buildFile));
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static String savantVersion() {
+    String version = ProjectBuildFile.class.getPackage().getImplementationVersion();
+    if (version != null) {
+      return version;
+    }
+
+    // Development builds don't have a version, so use the location and modification time of the Savant classes
+    try {
+      Path location = Paths.get(ProjectBuildFile.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      return "development:" + location + ":" + Files.getLastModifiedTime(location).toMillis();
+    } catch (Exception e) {
+      return "development";
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  /**
+   * Compiles the build file to bytecode. The script class is always the first class in the result.
+   */
+  private Map<String, byte[]> compile(Path buildFile) throws IOException {
+    try (GroovyClassLoader groovyClassLoader = new GroovyClassLoader(ClassLoader.getSystemClassLoader(), compilerConfig)) {
+      CompilationUnit unit = new CompilationUnit(compilerConfig, null, groovyClassLoader);
+      unit.addSource(buildFile.toFile());
+      unit.compile(Phases.CLASS_GENERATION);
+
+      String scriptClassName = unit.getFirstClassNode().getName();
+      Map<String, byte[]> classes = new LinkedHashMap<>();
+      @SuppressWarnings("unchecked") List<GroovyClass> generated = unit.getClasses();
+      for (GroovyClass groovyClass : generated) {
+        if (groovyClass.getName().equals(scriptClassName)) {
+          classes.put(groovyClass.getName(), groovyClass.getBytes());
+        }
+      }
+
+      for (GroovyClass groovyClass : generated) {
+        classes.putIfAbsent(groovyClass.getName(), groovyClass.getBytes());
+      }
+
+      return classes;
+    }
+  }
+
+  private Class<?> load(Map<String, byte[]> classes) throws ClassNotFoundException {
+    BytecodeClassLoader classLoader = new BytecodeClassLoader(classes);
+    return classLoader.loadClass(classes.keySet().iterator().next());
+  }
+
+  private Map<String, byte[]> read(Path cacheFile) {
+    if (!Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+      int count = dis.readInt();
+      Map<String, byte[]> classes = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        String name = dis.readUTF();
+        byte[] bytes = new byte[dis.readInt()];
+        dis.readFully(bytes);
+        classes.put(name, bytes);
+      }
+
+      return count > 0 ? classes : null;
+    } catch (IOException | RuntimeException e) {
+      output.debugln("Unable to read the compiled build file [%s]", cacheFile);
+      return null;
+    }
+  }
+
+  private void write(Path cacheFile, Map<String, byte[]> classes) {
+    try {
+      Files.createDirectories(cacheDirectory);
+      Path temp = Files.createTempFile(cacheDirectory, "build-file", ".tmp");
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        dos.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+          dos.writeUTF(entry.getKey());
+          dos.writeInt(entry.getValue().length);
+          dos.write(entry.getValue());
+        }
+      }
+
+      Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // The cache is only an optimization, so the build continues with the compiled classes
+      output.debugln("Unable to store the compiled build file in [%s]. %s", cacheDirectory, e.getMessage());
+    }
+  }
+
+  /**
+   * Defines the classes of a compiled build file from their bytecode.
+   */
+  private static class BytecodeClassLoader extends ClassLoader {
+    private final Map<String, byte[]> classes;
+
+    private BytecodeClassLoader(Map<String, byte[]> classes) {
+      super(ClassLoader.getSystemClassLoader());
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = classes.get(name);
+      if (bytes == null) {
+        throw new ClassNotFoundException(name);
+      }
+
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.graph.ResolvedArtifactGraph;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.plugin.Plugin;
+import org.savantbuild.runtime.BuildListener;
+
+import groovy.lang.Closure;
+
+/**
+ * A build listener that is defined in the build file using closures for the methods of the {@link BuildListener}
+ * interface. Methods that don't have a closure do nothing.
+ *
+ * @author Brian Pontarelli
+ */
+public class ClosureBuildListener implements BuildListener {
+  public static final List<String> METHODS = List.of("buildFinished", "parseFinished", "parseStarted", "pluginDependenciesResolved",
+      "pluginLoaded", "targetFailed", "targetFinished", "targetSkipped", "targetStarted");
+
+  private final Map<String, Closure<?>> closures;
+
+  public ClosureBuildListener(Map<String, Closure<?>> closures) {
+    this.closures = closures;
+  }
+
+  @Override
+  public void buildFinished(Throwable failure) {
+    call("buildFinished", failure);
+  }
+
+  @Override
+  public void parseFinished(Project project) {
+    call("parseFinished", project);
+  }
+
+  @Override
+  public void parseStarted(Path buildFile) {
+    call("parseStarted", buildFile);
+  }
+
+  @Override
+  public void pluginDependenciesResolved(List<Artifact> plugins, ResolvedArtifactGraph graph) {
+    call("pluginDependenciesResolved", plugins, graph);
+  }
+
+  @Override
+  public void pluginLoaded(Artifact pluginDependency, Plugin plugin) {
+    call("pluginLoaded", pluginDependency, plugin);
+  }
+
+  @Override
+  public void targetFailed(Target target, Throwable failure) {
+    call("targetFailed", target, failure);
+  }
+
+  @Override
+  public void targetFinished(Target target) {
+    call("targetFinished", target);
+  }
+
+  @Override
+  public void targetSkipped(Target target, String reason) {
+    call("targetSkipped", target, reason);
+  }
+
+  @Override
+  public void targetStarted(Target target) {
+    call("targetStarted", target);
+  }
+
+  private void call(String method, Object... arguments) {
+    Closure<?> closure = closures.get(method);
+    if (closure != null) {
+      closure.call(arguments);
+    }
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.domain.Version;
+import org.savantbuild.output.Output;
+import org.savantbuild.runtime.Switches;
+
+/**
+ * Stores a compact binary snapshot of the declarative part of an evaluated project (its coordinates and its targets
+ * with their descriptions, dependencies, inputs and outputs) together with every input that was read while the build
+ * file was evaluated:
+ * <ul>
+ *   <li>The build file (using the key of the {@link BuildFileCompiler})</li>
+ *   <li>The environment variables the build file looked up</li>
+ *   <li>The system properties (all of them, since the build file can read and write them directly)</li>
+ *   <li>The global configuration properties the build file looked up</li>
+ *   <li>The command-line switches</li>
+ *   <li>The files the build file read, like license override files</li>
+ * </ul>
+ * <p>
+ * If all the inputs still match, the snapshot is used instead of evaluating the build file. Target closures, plugins
+ * and the dependency graphs can't be stored, so the snapshot is only used for the invocations that don't run targets
+ * ({@code --help}, {@code --listTargets} and {@code --plan}). The snapshot is stored in the build directory of the
+ * project, so it is removed when the project is cleaned.
+ *
+ * @author Brian Pontarelli
+ */
+public class ConfigurationCache {
+  private static final int VERSION = 1;
+
+  private final Output output;
+
+  public ConfigurationCache(Output output) {
+    this.output = output;
+  }
+
+  /**
+   * Loads the snapshot of the project if all of its inputs still match.
+   *
+   * @param buildFile    The build file.
+   * @param buildFileKey The key of the build file from the {@link BuildFileCompiler}.
+   * @param switches     The current switches.
+   * @return The project (whose targets don't have invocations) or null if there isn't a valid snapshot.
+   */
+  public Project load(Path buildFile, String buildFileKey, Switches switches) {
+    Path directory = buildFile.toAbsolutePath().getParent();
+    Path file = file(directory);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != VERSION || !buildFileKey.equals(readString(in)) || !switchesKey(switches).equals(readString(in)) ||
+          !systemPropertiesKey().equals(readString(in))) {
+        return null;
+      }
+
+      boolean allEnvironment = in.readBoolean();
+      Map<String, String> environment = readMap(in);
+      if (allEnvironment ? !environmentKey().equals(readString(in)) : changed(environment, System.getenv())) {
+        return null;
+      }
+
+      Map<String, String> global = readMap(in);
+      if (!global.isEmpty() && changed(global, new GlobalConfiguration().properties)) {
+        return null;
+      }
+
+      Map<String, String> files = readMap(in);
+      for (Map.Entry<String, String> entry : files.entrySet()) {
+        if (!entry.getValue().equals(ConfigurationInputs.hash(Paths.get(entry.getKey())))) {
+          return null;
+        }
+      }
+
+      Project project = new Project(directory, output);
+      project.buildFile = buildFile.toAbsolutePath();
+      project.group = readString(in);
+      project.name = readString(in);
+      String version = readString(in);
+      project.version = version != null ? new Version(version) : null;
+
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        Target target = new Target();
+        target.name = readString(in);
+        target.description = readString(in);
+        target.dependencies = readList(in);
+        target.inputs = readList(in);
+        target.outputs = readList(in);
+        project.targets.put(target.name, target);
+      }
+
+      output.debugln("Loaded the project configuration from [%s]", file);
+      return project;
+    } catch (IOException | RuntimeException e) {
+      output.debugln("Unable to load the project configuration from [%s]. %s", file, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Stores the snapshot of the project. Failures are ignored since the snapshot is only an optimization.
+   *
+   * @param project      The evaluated project.
+   * @param buildFileKey The key of the build file from the {@link BuildFileCompiler}.
+   * @param inputs       The inputs that were recorded while the build file was evaluated.
+   * @param switches     The switches.
+   */
+  public void store(Project project, String buildFileKey, ConfigurationInputs inputs, Switches switches) {
+    Path file = file(project.directory);
+    try {
+      Files.createDirectories(file.getParent());
+      Path temp = Files.createTempFile(file.getParent(), "configuration", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(VERSION);
+        writeString(out, buildFileKey);
+        writeString(out, switchesKey(switches));
+        writeString(out, systemPropertiesKey());
+        synchronized (inputs) {
+          out.writeBoolean(inputs.allEnvironment);
+          writeMap(out, inputs.environment);
+          if (inputs.allEnvironment) {
+            writeString(out, environmentKey());
+          }
+
+          writeMap(out, inputs.global);
+          writeMap(out, inputs.files);
+        }
+
+        writeString(out, project.group);
+        writeString(out, project.name);
+        writeString(out, project.version != null ? project.version.toString() : null);
+        out.writeInt(project.targets.size());
+        for (Map.Entry<String, Target> entry : project.targets.entrySet()) {
+          Target target = entry.getValue();
+          writeString(out, entry.getKey());
+          writeString(out, target.description);
+          writeList(out, target.dependencies);
+          writeList(out, target.inputs);
+          writeList(out, target.outputs);
+        }
+      }
+
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      output.debugln("Unable to store the project configuration in [%s]. %s", file, e.getMessage());
+    }
+  }
+
+  private static boolean changed(Map<String, String> recorded, Map<?, ?> current) {
+    for (Map.Entry<String, String> entry : recorded.entrySet()) {
+      if (!Objects.equals(entry.getValue(), current.get(entry.getKey()))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static String environmentKey() {
+    return hash(new TreeMap<>(System.getenv()).toString());
+  }
+
+  private static Path file(Path projectDirectory) {
+    return projectDirectory.resolve("build/savant/configuration.bin");
+  }
+
+  private static String hash(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static List<String> readList(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+
+    List<String> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(readString(in));
+    }
+
+    return list;
+  }
+
+  private static Map<String, String> readMap(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Map<String, String> map = new TreeMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(readString(in), readString(in));
+    }
+
+    return map;
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static String switchesKey(Switches switches) {
+    return new TreeSet<>(switches.booleanSwitches) + ":" + new TreeMap<>(switches.valueSwitches);
+  }
+
+  private static String systemPropertiesKey() {
+    Properties properties = System.getProperties();
+    Map<String, String> sorted = new TreeMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      sorted.put(name, properties.getProperty(name));
+    }
+
+    return hash(sorted.toString());
+  }
+
+  private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+    if (list == null) {
+      out.writeInt(-1);
+      return;
+    }
+
+    out.writeInt(list.size());
+    for (String value : list) {
+      writeString(out, value);
+    }
+  }
+
+  private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      writeString(out, entry.getKey());
+      writeString(out, entry.getValue());
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
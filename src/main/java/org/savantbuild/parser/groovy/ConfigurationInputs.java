@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records the inputs that a build file reads while it is evaluated, other than the build file itself. These are the
+ * inputs of the {@link ConfigurationCache} and if any of them change, the build file must be evaluated again.
+ * <p>
+ * The environment variables and global configuration properties are recorded as they are looked up. The files are
+ * recorded by the hash of their contents.
+ *
+ * @author Brian Pontarelli
+ */
+public class ConfigurationInputs {
+  public static final String MISSING = "missing";
+
+  /**
+   * The environment variables that were looked up and their values (null if the variable wasn't set).
+   */
+  public final Map<String, String> environment = new TreeMap<>();
+
+  /**
+   * The files that were read and the SHA-256 hashes of their contents ({@link #MISSING} if the file didn't exist).
+   */
+  public final Map<String, String> files = new TreeMap<>();
+
+  /**
+   * The global configuration properties that were looked up and their values.
+   */
+  public final Map<String, String> global = new TreeMap<>();
+
+  /**
+   * Set if the build file iterated over the environment variables, which means that every variable is an input.
+   */
+  public boolean allEnvironment;
+
+  /**
+   * Computes the hash of the contents of the file.
+   *
+   * @param file The file.
+   * @return The hash or {@link #MISSING} if the file doesn't exist.
+   * @throws IOException If the file can't be read.
+   */
+  public static String hash(Path file) throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return MISSING;
+    }
+
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  /**
+   * Wraps the environment variables in a read-only map that records the variables that are looked up.
+   *
+   * @param environment The environment variables.
+   * @return The recording map.
+   */
+  public Map<String, String> recordEnvironment(Map<String, String> environment) {
+    return new AbstractMap<>() {
+      @Override
+      public boolean containsKey(Object key) {
+        return get(key) != null;
+      }
+
+      @Override
+      public Set<Entry<String, String>> entrySet() {
+        synchronized (ConfigurationInputs.this) {
+          allEnvironment = true;
+        }
+
+        return environment.entrySet();
+      }
+
+      @Override
+      public String get(Object key) {
+        String value = environment.get(key);
+        if (key instanceof String name) {
+          synchronized (ConfigurationInputs.this) {
+            ConfigurationInputs.this.environment.put(name, value);
+          }
+        }
+
+        return value;
+      }
+    };
+  }
+
+  /**
+   * Records that the build file read the given file.
+   *
+   * @param file The file.
+   * @throws IOException If the file can't be read.
+   */
+  public synchronized void recordFile(Path file) throws IOException {
+    files.put(file.toAbsolutePath().toString(), hash(file));
+  }
+
+  /**
+   * Records that the build file looked up the given global configuration property.
+   *
+   * @param name  The name of the property.
+   * @param value The value of the property or null if it isn't set.
+   */
+  public synchronized void recordGlobal(String name, String value) {
+    global.put(name, value);
+  }
+}
@@ -21,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Properties;
 
+import org.savantbuild.domain.BuildCacheConfiguration;
 import org.savantbuild.runtime.BuildFailureException;
 import org.savantbuild.util.SavantPaths;
 
@@ -36,7 +37,19 @@ import groovy.lang.GroovyObjectSupport;
 public class GlobalConfiguration extends GroovyObjectSupport {
   public final Properties properties = new Properties();
 
+  private final ConfigurationInputs configurationInputs;
+
   public GlobalConfiguration() {
+    this(null);
+  }
+
+  /**
+   * Loads the global configuration and records the properties that the build file looks up in the given inputs.
+   *
+   * @param configurationInputs The inputs of the build file or null.
+   */
+  public GlobalConfiguration(ConfigurationInputs configurationInputs) {
+    this.configurationInputs = configurationInputs;
     Path configFile = SavantPaths.get().configDir().resolve("config.properties");
     if (Files.isRegularFile(configFile)) {
       try (InputStream is = Files.newInputStream(configFile)) {
@@ -47,9 +60,30 @@ public class GlobalConfiguration extends GroovyObjectSupport {
     }
   }
 
+  /**
+   * Builds the remote build cache configuration from the {@code buildCache.*} properties.
+   *
+   * @return The configuration or null if the {@code buildCache.url} property isn't set.
+   */
+  public BuildCacheConfiguration buildCacheConfiguration() {
+    String url = properties.getProperty("buildCache.url");
+    if (url == null) {
+      return null;
+    }
+
+    BuildCacheConfiguration configuration = new BuildCacheConfiguration(url, Boolean.parseBoolean(properties.getProperty("buildCache.push")));
+    configuration.username = properties.getProperty("buildCache.username");
+    configuration.password = properties.getProperty("buildCache.password");
+    return configuration;
+  }
+
   @Override
   public Object getProperty(String property) {
     String value = properties.getProperty(property);
+    if (configurationInputs != null) {
+      configurationInputs.recordGlobal(property, value);
+    }
+
     if (value == null) {
       Path configFile = SavantPaths.get().configDir().resolve("config.properties");
       throw new BuildFailureException("Missing global configuration property [" + property + "]. You must define this " +
@@ -18,7 +18,6 @@ package org.savantbuild.parser.groovy;
 import java.io.IOException;
 import java.nio.file.Path;
 
-import org.codehaus.groovy.control.CompilerConfiguration;
 import org.savantbuild.dep.LicenseException;
 import org.savantbuild.dep.PublishException;
 import org.savantbuild.dep.domain.CompatibilityException;
@@ -32,13 +31,17 @@ import org.savantbuild.parser.BuildFileParser;
 import org.savantbuild.parser.ParseException;
 import org.savantbuild.parser.TargetGraphBuilder;
 import org.savantbuild.plugin.PluginLoadException;
+import org.savantbuild.runtime.BuildEvents;
 import org.savantbuild.runtime.BuildFailureException;
 import org.savantbuild.runtime.BuildRunException;
+import org.savantbuild.runtime.BuildTimings;
+import org.savantbuild.runtime.DaemonCaches;
+import org.savantbuild.runtime.DependencyLock;
+import org.savantbuild.runtime.PrefetchProcess;
 import org.savantbuild.runtime.RuntimeConfiguration;
 import org.savantbuild.security.MD5Exception;
 import org.savantbuild.util.CyclicException;
-
-import groovy.lang.GroovyClassLoader;
+import org.savantbuild.util.SavantPaths;
 
 /**
  * Parses the build file using a Groovy DSL.
@@ -56,7 +59,7 @@ public class GroovyBuildFileParser implements BuildFileParser {
   }
 
   /**
-   * Executes the script using a GroovyClassLoader and the ProjectBuildFileMetaClass.
+   * Compiles the script (or loads it from the compiled build file cache) and executes it.
    *
    * @param buildFile            The file.
    * @param runtimeConfiguration The runtime configuration that is passed to the build script.
@@ -82,24 +85,104 @@ public class GroovyBuildFileParser implements BuildFileParser {
    */
   @Override
   public Project parse(Path buildFile, RuntimeConfiguration runtimeConfiguration) throws ParseException {
-    CompilerConfiguration compilerConfig = new CompilerConfiguration();
-    compilerConfig.setScriptBaseClass(ProjectBuildFile.class.getName());
+    BuildTimings timings = runtimeConfiguration.timings;
+    try {
+      BuildFileCompiler compiler = new BuildFileCompiler(output, SavantPaths.get().cacheDir().resolve("build-files"));
+      String key = compiler.key(buildFile);
+      Class<?> buildClass;
+      try (BuildTimings.Timer ignore = timings.start("phase", "Compile build file", new BuildEvents.BuildFileCompilation(buildFile.toString()))) {
+        buildClass = compile(compiler, key, buildFile, runtimeConfiguration.daemonCaches);
+      }
+
+      // Creating the script loads the global configuration
+      ProjectBuildFile script;
+      try (BuildTimings.Timer ignore = timings.start("phase", "Load global configuration")) {
+        script = (ProjectBuildFile) buildClass.newInstance();
+      }
 
-    try (GroovyClassLoader groovyClassLoader = new GroovyClassLoader(ClassLoader.getSystemClassLoader(), compilerConfig)) {
-      Class<?> buildClass = groovyClassLoader.parseClass(buildFile.toFile());
-      ProjectBuildFile script = (ProjectBuildFile) buildClass.newInstance();
       Project project = new Project(buildFile.toAbsolutePath().getParent(), output);
+      project.buildFile = buildFile.toAbsolutePath();
       script.project = project;
       script.output = output;
       script.runtimeConfiguration = runtimeConfiguration;
       script.switches = runtimeConfiguration.switches;
-      script.run();
+      try (BuildTimings.Timer ignore = timings.start("phase", "Evaluate build file", new BuildEvents.BuildFileEvaluation(buildFile.toString()))) {
+        script.run();
+      }
+
+      try (BuildTimings.Timer ignore = timings.start("dependency", "Dependency lock")) {
+        DependencyLock lock = new DependencyLock(project.directory.resolve(DependencyLock.FILE_NAME), output);
+        boolean locked = !runtimeConfiguration.updateLock && lock.apply(project);
+
+        // The dependencies are prefetched when they are first resolved unless the graph is loaded from the lock file
+        if (!locked && project.fetchConcurrency > 1 && project.dependencies != null && project.workflow != null) {
+          project.workflow.fetchWorkflow.processes.add(0, new PrefetchProcess(project, timings, output));
+        }
+
+        if (runtimeConfiguration.updateLock) {
+          lock.update(project);
+        }
+      }
+
+      if (project.buildCache == null) {
+        project.buildCache = script.global.buildCacheConfiguration();
+      }
 
-      project.targetGraph = targetGraphBuilder.build(project);
+      try (BuildTimings.Timer ignore = timings.start("phase", "Build target graph")) {
+        project.targetGraph = targetGraphBuilder.build(project);
+      }
+
+      try (BuildTimings.Timer ignore = timings.start("phase", "Store configuration cache")) {
+        new ConfigurationCache(output).store(project, key, script.configurationInputs, runtimeConfiguration.switches);
+      }
 
       return project;
     } catch (IOException | InstantiationException | IllegalAccessException e) {
       throw new ParseException("Unable to parse project build file", e);
     }
   }
+
+  /**
+   * Loads the model from the {@link ConfigurationCache} if none of the inputs of the build file changed since it was
+   * last evaluated. Otherwise, this evaluates the build file.
+   */
+  @Override
+  public Project parseModel(Path buildFile, RuntimeConfiguration runtimeConfiguration) throws ParseException {
+    try {
+      String key = new BuildFileCompiler(output, SavantPaths.get().cacheDir().resolve("build-files")).key(buildFile);
+      Project project;
+      try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("phase", "Load configuration cache")) {
+        project = new ConfigurationCache(output).load(buildFile, key, runtimeConfiguration.switches);
+      }
+
+      if (project != null) {
+        project.targetGraph = targetGraphBuilder.build(project);
+        return project;
+      }
+    } catch (IOException e) {
+      throw new ParseException("Unable to parse project build file", e);
+    }
+
+    return parse(buildFile, runtimeConfiguration);
+  }
+
+  /**
+   * Compiles the build file or loads it from the compiled build file cache. When the build is run by the daemon, the
+   * class is also reused between builds until the build file changes.
+   */
+  private Class<?> compile(BuildFileCompiler compiler, String key, Path buildFile, DaemonCaches daemonCaches)
+      throws IOException {
+    Class<?> buildClass = daemonCaches != null ? daemonCaches.getBuildFileClass(key) : null;
+    if (buildClass != null) {
+      output.debugln("Reusing the compiled build file [%s] from a previous build", buildFile);
+      return buildClass;
+    }
+
+    buildClass = compiler.compile(buildFile, key);
+    if (daemonCaches != null) {
+      daemonCaches.putBuildFileClass(key, buildClass);
+    }
+
+    return buildClass;
+  }
 }
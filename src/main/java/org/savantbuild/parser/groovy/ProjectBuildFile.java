@@ -32,9 +32,12 @@ import org.savantbuild.domain.VersionException;
 import org.savantbuild.output.Output;
 import org.savantbuild.parser.ParseException;
 import org.savantbuild.plugin.DefaultPluginLoader;
+import org.savantbuild.plugin.LazyPlugin;
 import org.savantbuild.plugin.Plugin;
-import org.savantbuild.plugin.PluginLoader;
+import org.savantbuild.plugin.PluginBatch;
 import org.savantbuild.runtime.BuildFailureException;
+import org.savantbuild.runtime.BuildListener;
+import org.savantbuild.runtime.BuildTimings;
 import org.savantbuild.runtime.RuntimeConfiguration;
 import org.savantbuild.runtime.Switches;
 import org.savantbuild.util.MapBuilder;
@@ -52,11 +55,13 @@ import static java.util.Arrays.asList;
  */
 @SuppressWarnings("unused")
 public abstract class ProjectBuildFile extends Script {
-  public final Map<String, String> ENV = System.getenv();
+  public final ConfigurationInputs configurationInputs = new ConfigurationInputs();
+
+  public final Map<String, String> ENV = configurationInputs.recordEnvironment(System.getenv());
 
   public final Properties SYS = System.getProperties();
 
-  public final GlobalConfiguration global = new GlobalConfiguration();
+  public final GlobalConfiguration global = new GlobalConfiguration(configurationInputs);
 
   public Output output;
 
@@ -66,6 +71,8 @@ public abstract class ProjectBuildFile extends Script {
 
   public Switches switches;
 
+  private PluginBatch pluginBatch;
+
   @Override
   public Object getProperty(String property) {
     try {
@@ -86,12 +93,47 @@ public abstract class ProjectBuildFile extends Script {
     throw new BuildFailureException();
   }
 
+  /**
+   * <p> Registers a {@link BuildListener} that is called for the events of the build. The listener is either an
+   * instance of the interface or closures for its methods like this: </p>
+   * <pre>
+   *   buildListener(targetStarted: { target -> println "Starting ${target.name}" },
+   *                 targetFinished: { target -> println "Finished ${target.name}" })
+   * </pre>
+   *
+   * @param closures The closures for the methods of the listener.
+   */
+  protected void buildListener(Map<String, Closure<?>> closures) {
+    if (closures == null || closures.isEmpty() || !ClosureBuildListener.METHODS.containsAll(closures.keySet())) {
+      throw new ParseException("Invalid buildListener call. You must supply closures for one or more of the methods " + ClosureBuildListener.METHODS +
+          " like this:\n\n  buildListener(targetFinished: { target -> println \"Finished ${target.name}\" })");
+    }
+
+    buildListener(new ClosureBuildListener(closures));
+  }
+
+  /**
+   * Registers a {@link BuildListener} that is called for the events of the build.
+   *
+   * @param listener The listener.
+   */
+  protected void buildListener(BuildListener listener) {
+    runtimeConfiguration.listeners.add(listener);
+  }
+
   /**
    * <p> Loads a plugin and returns a new instance of the Plugin class. This method is called with the information used
    * to load the plugin like this: </p>
    * <pre>
    *   java = loadPlugin(id: "org.savantbuild.plugin:java:0.1.0")
    * </pre>
+   * <p> By default a {@link LazyPlugin} handle is returned. The plugin starts resolving in the background right away
+   * and it isn't instantiated until a target calls it. The plugins of the build file share a parent class loader for
+   * the JAR files they have in common.
+   * Plugins can be loaded immediately using the {@code lazy} attribute like this: </p>
+   * <pre>
+   *   java = loadPlugin(id: "org.savantbuild.plugin:java:0.1.0", lazy: false)
+   * </pre>
    *
    * @param attributes The Attributes used to load the plugin.
    * @return The Plugin instance.
@@ -103,9 +145,23 @@ public abstract class ProjectBuildFile extends Script {
     }
 
     String id = GroovyTools.toString(attributes, "id");
-    PluginLoader loader = new DefaultPluginLoader(project, runtimeConfiguration, output);
     Artifact pluginDependency = new Artifact(id);
-    Plugin plugin = loader.load(pluginDependency);
+    Plugin plugin;
+    try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("plugin", "loadPlugin [" + id + "]")) {
+      if (Boolean.FALSE.equals(attributes.get("lazy"))) {
+        plugin = new DefaultPluginLoader(project, runtimeConfiguration, output).load(pluginDependency);
+      } else {
+        // The lazy plugins are resolved in the background while the rest of the build file is evaluated and the build only
+        // waits for a plugin when a target first calls it
+        if (pluginBatch == null) {
+          pluginBatch = new PluginBatch(new DefaultPluginLoader(project, runtimeConfiguration, output));
+        }
+
+        pluginBatch.add(pluginDependency);
+        plugin = new LazyPlugin(pluginDependency, pluginBatch);
+      }
+    }
+
     project.plugins.put(pluginDependency, plugin);
     return plugin;
   }
@@ -154,6 +210,7 @@ public abstract class ProjectBuildFile extends Script {
     for (String licenseName : licenseNames) {
       try {
         Path licenseOverrideFile = project.directory.resolve("license-" + licenseName + ".txt");
+        configurationInputs.recordFile(licenseOverrideFile);
         String text = null;
         if (Files.isRegularFile(licenseOverrideFile)) {
           text = new String(Files.readAllBytes(licenseOverrideFile));
@@ -193,6 +250,20 @@ public abstract class ProjectBuildFile extends Script {
    * <pre>
    *   name: The name of the target
    * </pre>
+   * <p> The optional attributes are: </p>
+   * <pre>
+   *   description: The description of the target
+   *   dependsOn: The list of targets that must run before this target
+   *   inputs: The list of files and directories the target reads
+   *   outputs: The list of files and directories the target produces
+   * </pre>
+   * <p> If the target declares its inputs, it is only run if its inputs or outputs changed since the last time it
+   * ran successfully. For example: </p>
+   * <pre>
+   *   target(name: "compile", inputs: ["src/main/java"], outputs: ["build/classes/main"]) {
+   *     ...
+   *   }
+   * </pre>
    *
    * @param attributes The attributes of the target.
    * @param closure    The closure that contains the executable pieces of the target.
@@ -210,6 +281,8 @@ public abstract class ProjectBuildFile extends Script {
     target.description = GroovyTools.toString(attributes, "description");
     target.invocation = closure;
     target.dependencies = GroovyTools.toListOfStrings(attributes.get("dependsOn"));
+    target.inputs = GroovyTools.toListOfStrings(attributes.get("inputs"));
+    target.outputs = GroovyTools.toListOfStrings(attributes.get("outputs"));
 
     project.targets.put(target.name, target);
     return target;
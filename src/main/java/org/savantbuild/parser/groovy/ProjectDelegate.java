@@ -158,7 +158,7 @@ public class ProjectDelegate {
     }
 
     project.workflow = new Workflow(new FetchWorkflow(output), new PublishWorkflow(), output);
-    closure.setDelegate(new WorkflowDelegate(output, project.workflow));
+    closure.setDelegate(new WorkflowDelegate(output, project.workflow, project));
     closure.setResolveStrategy(Closure.DELEGATE_FIRST);
     closure.run();
     return project.workflow;
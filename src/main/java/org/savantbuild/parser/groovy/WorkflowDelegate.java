@@ -15,10 +15,12 @@
  */
 package org.savantbuild.parser.groovy;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import org.savantbuild.dep.workflow.FetchWorkflow;
+import org.savantbuild.dep.workflow.ItemSource;
 import org.savantbuild.dep.workflow.PublishWorkflow;
 import org.savantbuild.dep.workflow.Workflow;
 import org.savantbuild.dep.workflow.process.CacheProcess;
@@ -26,9 +28,15 @@ import org.savantbuild.dep.workflow.process.MavenProcess;
 import org.savantbuild.dep.workflow.process.Process;
 import org.savantbuild.dep.workflow.process.SVNProcess;
 import org.savantbuild.dep.workflow.process.URLProcess;
+import org.savantbuild.domain.BuildCacheConfiguration;
+import org.savantbuild.domain.Project;
 import org.savantbuild.domain.Version;
 import org.savantbuild.output.Output;
 import org.savantbuild.parser.ParseException;
+import org.savantbuild.runtime.DependencyPrefetcher;
+import org.savantbuild.runtime.HTTPProcess;
+import org.savantbuild.runtime.RepositoryLookupProcess;
+import org.savantbuild.runtime.RepositoryLookups;
 import org.savantbuild.util.SavantPaths;
 
 import groovy.lang.Closure;
@@ -45,11 +53,113 @@ public class WorkflowDelegate {
 
   public final Output output;
 
+  public final Project project;
+
   public final Workflow workflow;
 
   public WorkflowDelegate(Output output, Workflow workflow) {
+    this(output, workflow, null);
+  }
+
+  public WorkflowDelegate(Output output, Workflow workflow, Project project) {
     this.output = output;
     this.workflow = workflow;
+    this.project = project;
+  }
+
+  /**
+   * <p>
+   * Configures the remote build cache that targets share their outputs through when the build is run with the
+   * {@code --buildCache} switch. It should look like:
+   * </p>
+   * <pre>
+   *   buildCache(url: "https://cache.example.com/savant", push: ENV.CI != null)
+   * </pre>
+   * <p>
+   * The optional attributes are {@code username}, {@code password}, {@code connectTimeout} and {@code readTimeout}
+   * (in milliseconds). The remote build cache can also be configured for every project using the
+   * {@code buildCache.url} and {@code buildCache.push} properties of the global configuration.
+   * </p>
+   *
+   * @param attributes The attributes.
+   * @return The build cache configuration.
+   */
+  public BuildCacheConfiguration buildCache(Map<String, Object> attributes) {
+    if (project == null || !GroovyTools.hasAttributes(attributes, "url")) {
+      throw new ParseException("Invalid buildCache workflow definition. It should look like:\n\n" +
+          "  buildCache(url: \"https://cache.example.com/savant\", push: true)");
+    }
+
+    BuildCacheConfiguration configuration = new BuildCacheConfiguration(GroovyTools.toString(attributes, "url"),
+        Boolean.parseBoolean(GroovyTools.toString(attributes, "push")));
+    configuration.username = GroovyTools.toString(attributes, "username");
+    configuration.password = GroovyTools.toString(attributes, "password");
+    if (attributes.get("connectTimeout") instanceof Number connectTimeout) {
+      configuration.connectTimeout = connectTimeout.intValue();
+    }
+
+    if (attributes.get("readTimeout") instanceof Number readTimeout) {
+      configuration.readTimeout = readTimeout.intValue();
+    }
+
+    project.buildCache = configuration;
+    return configuration;
+  }
+
+  /**
+   * <p>
+   * Configures the fetch workflow processes, how many artifacts are fetched concurrently and whether the lookups of the
+   * remote repositories are remembered. It should look like:
+   * </p>
+   * <pre>
+   *   fetch(concurrency: 16, lookupCache: true, lookupTTL: 720, preferGroupRepository: true) {
+   *     cache()
+   *     url(url: "https://repository.savantbuild.org")
+   *     maven()
+   *   }
+   * </pre>
+   * <p>
+   * When the concurrency is greater than 1, the dependencies of the project are fetched concurrently when they are first
+   * resolved (see {@link DependencyPrefetcher}) unless they are loaded from the lock file. When the lookup cache is enabled, the remote processes are combined into
+   * a {@link RepositoryLookupProcess} that skips the repositories that are known not to have an item. The
+   * {@code lookupTTL} is how many minutes a repository is remembered as not having an item (one day by default). If
+   * {@code preferGroupRepository} is enabled, the repository that last served an item of a group is tried first for the
+   * other items of the group instead of the repositories being tried in order. The cache processes keep their position
+   * in the workflow.
+   * </p>
+   *
+   * @param attributes The attributes.
+   * @param closure    The closure. This closure uses the delegate class {@link ProcessDelegate}.
+   */
+  public void fetch(Map<String, Object> attributes, @DelegatesTo(ProcessDelegate.class) Closure<?> closure) {
+    Object concurrency = attributes.get("concurrency");
+    if (concurrency != null && (!(concurrency instanceof Number number) || number.intValue() < 1)) {
+      throw new ParseException("Invalid fetch workflow definition. The concurrency must be a number greater than 0. It should look like:\n\n" +
+          "  fetch(concurrency: 16) {\n    cache()\n  }");
+    }
+
+    Object lookupTTL = attributes.get("lookupTTL");
+    if (lookupTTL != null && (!(lookupTTL instanceof Number number) || number.longValue() < 0)) {
+      throw new ParseException("Invalid fetch workflow definition. The lookupTTL must be a number of minutes that isn't negative. It should look like:\n\n" +
+          "  fetch(lookupCache: true, lookupTTL: 720) {\n    cache()\n  }");
+    }
+
+    if (project != null && concurrency != null) {
+      project.fetchConcurrency = ((Number) concurrency).intValue();
+    }
+
+    fetch(closure);
+
+    if (Boolean.parseBoolean(GroovyTools.toString(attributes, "lookupCache"))) {
+      List<Process> processes = workflow.fetchWorkflow.processes;
+      List<Process> remotes = processes.stream().filter((process) -> !(process instanceof CacheProcess)).toList();
+      if (!remotes.isEmpty()) {
+        int index = processes.indexOf(remotes.get(0));
+        processes.removeAll(remotes);
+        Duration ttl = lookupTTL != null ? Duration.ofMinutes(((Number) lookupTTL).longValue()) : RepositoryLookups.DEFAULT_TTL;
+        processes.add(index, lookupProcess(remotes, ttl, Boolean.parseBoolean(GroovyTools.toString(attributes, "preferGroupRepository"))));
+      }
+    }
   }
 
   /**
@@ -101,7 +211,7 @@ public class WorkflowDelegate {
    * Configures the standard project workflow as follows:
    * </p>
    * <pre>
-   *   fetch {
+   *   fetch(lookupCache: true) {
    *     cache()
    *     url(url: "https://repository.savantbuild.org")
    *     maven(url: "https://repo1.maven.org/maven2")
@@ -114,11 +224,18 @@ public class WorkflowDelegate {
   public void standard() {
     String savantCache = SavantPaths.get().cacheDir().toString();
     workflow.fetchWorkflow.processes.add(new CacheProcess(output, savantCache, savantCache, defaultMavenDir));
-    workflow.fetchWorkflow.processes.add(new URLProcess(output, "https://repository.savantbuild.org", null, null));
-    workflow.fetchWorkflow.processes.add(new MavenProcess(output, "https://repo1.maven.org/maven2", null, null));
+    workflow.fetchWorkflow.processes.add(lookupProcess(List.of(
+        new URLProcess(output, "https://repository.savantbuild.org", null, null),
+        new MavenProcess(output, "https://repo1.maven.org/maven2", null, null)
+    ), RepositoryLookups.DEFAULT_TTL, false));
     workflow.publishWorkflow.processes.add(new CacheProcess(output, savantCache, savantCache, defaultMavenDir));
   }
 
+  private RepositoryLookupProcess lookupProcess(List<Process> remotes, Duration ttl, boolean preferGroupRepository) {
+    RepositoryLookups lookups = new RepositoryLookups(SavantPaths.get().cacheDir().resolve("repository-lookups.txt"), ttl, output);
+    return new RepositoryLookupProcess(output, remotes, lookups, preferGroupRepository);
+  }
+
   /**
    * Process delegate class that is used to configure {@link Process} instances for the {@link FetchWorkflow} and
    * {@link PublishWorkflow} of the {@link Workflow}.
@@ -152,6 +269,23 @@ public class WorkflowDelegate {
           mavenDir != null ? mavenDir : defaultMavenDir));
     }
 
+    /**
+     * Adds a {@link HTTPProcess} to the workflow that uses the given attributes. The {@code maven} attribute marks the
+     * repository as a Maven repository, which means that the artifacts are stored in the Maven directory of the cache.
+     *
+     * @param attributes The HTTP attributes.
+     */
+    public void http(Map<String, Object> attributes) {
+      if (!GroovyTools.hasAttributes(attributes, "url")) {
+        throw new ParseException("Invalid http workflow definition. It should look like:\n\n" +
+            "  http(url: \"https://repository.savantbuild.org\")");
+      }
+
+      ItemSource source = Boolean.parseBoolean(GroovyTools.toString(attributes, "maven")) ? ItemSource.MAVEN : ItemSource.SAVANT;
+      processes.add(new HTTPProcess(output, GroovyTools.toString(attributes, "url"), GroovyTools.toString(attributes, "username"),
+          GroovyTools.toString(attributes, "password"), source, SavantPaths.get().cacheDir().resolve("http-downloads")));
+    }
+
     /**
      * Adds a {@link MavenProcess} to the workflow that uses the given attributes.
      *
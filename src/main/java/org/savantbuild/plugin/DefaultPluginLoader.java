@@ -17,8 +17,22 @@ package org.savantbuild.plugin;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -29,17 +43,30 @@ import org.savantbuild.dep.domain.Dependencies;
 import org.savantbuild.dep.domain.DependencyGroup;
 import org.savantbuild.dep.domain.License;
 import org.savantbuild.dep.domain.ReifiedArtifact;
+import org.savantbuild.dep.domain.ResolvedArtifact;
 import org.savantbuild.dep.graph.ArtifactGraph;
 import org.savantbuild.dep.graph.DependencyGraph;
 import org.savantbuild.dep.graph.ResolvedArtifactGraph;
 import org.savantbuild.domain.Project;
 import org.savantbuild.lang.Classpath;
 import org.savantbuild.output.Output;
+import org.savantbuild.runtime.BuildEvents;
 import org.savantbuild.runtime.BuildFailureException;
+import org.savantbuild.runtime.BuildTimings;
+import org.savantbuild.runtime.DaemonCaches;
 import org.savantbuild.runtime.RuntimeConfiguration;
+import org.savantbuild.util.Graph.Edge;
+import org.savantbuild.util.SavantPaths;
 
 /**
- * Default plugin loader that uses the Savant dependency service and a URLClassLoader to load the plugin.
+ * Default plugin loader that uses the Savant dependency service and a URLClassLoader to load the plugin. When the build
+ * is run by the build daemon, the class loaders of the plugins are reused between builds.
+ * <p>
+ * Loading is split into resolving the classpath of the plugin (which builds and resolves its dependency graph), creating
+ * the class loader and instantiating the plugin class. The classpath can be resolved in the background using
+ * {@link #resolveAsync(Artifact)} and the {@link PluginBatch} uses this to resolve the plugins of a build file while it
+ * is evaluated and to load their common JAR files in a shared parent class loader. Resolutions are stored in the
+ * {@link PluginIndex} so that later builds don't need to rebuild the dependency graphs of the plugins.
  *
  * @author Brian Pontarelli
  */
@@ -48,6 +75,39 @@ public class DefaultPluginLoader implements PluginLoader {
       .with("compile", new GroupTraversalRule(true, "compile", "runtime"))
       .with("runtime", new GroupTraversalRule(true, "compile", "runtime"));
 
+  /**
+   * The number of plugins that are resolved in the background at the same time. The other resolutions wait in the queue
+   * so that the ones the build never uses can be cancelled when it exits.
+   */
+  public static final int RESOLVER_THREADS = 2;
+
+  /**
+   * The background resolutions that haven't started yet and the plugins they resolve.
+   */
+  private static final Map<CompletableFuture<PluginClasspath>, Artifact> PENDING = new ConcurrentHashMap<>();
+
+  /**
+   * The daemon threads that resolve plugins in the background while the build file is evaluated or targets run. Since
+   * these don't keep the JVM alive, {@link #awaitResolutions(boolean)} must be called before the build exits.
+   */
+  private static final ExecutorService RESOLVERS = Executors.newFixedThreadPool(RESOLVER_THREADS, runnable -> {
+    Thread thread = new Thread(runnable, "savant-plugin-resolver");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Whether the current thread is resolving a plugin in the background.
+   */
+  private static final ThreadLocal<Boolean> RESOLVING = ThreadLocal.withInitial(() -> false);
+
+  /**
+   * The background resolutions that are running.
+   */
+  private static final Set<CompletableFuture<PluginClasspath>> RUNNING = ConcurrentHashMap.newKeySet();
+
+  private final PluginIndex index;
+
   private final Output output;
 
   private final Project project;
@@ -58,6 +118,42 @@ public class DefaultPluginLoader implements PluginLoader {
     this.output = output;
     this.project = project;
     this.runtimeConfiguration = runtimeConfiguration;
+    this.index = new PluginIndex(SavantPaths.get().cacheDir().resolve("plugin-index"), output);
+  }
+
+  /**
+   * Waits for the background resolutions to finish. This is called before the build exits (which cancels the
+   * resolutions that haven't started yet) so that the JVM doesn't exit in the middle of a download and leave a partial
+   * file in the cache. Failures are ignored because the builds that use the plugins report them.
+   *
+   * @param cancelPending Whether the resolutions that haven't started yet are cancelled instead of waited for.
+   */
+  public static void awaitResolutions(boolean cancelPending) {
+    List<CompletableFuture<PluginClasspath>> resolutions = new ArrayList<>();
+    for (CompletableFuture<PluginClasspath> resolution : PENDING.keySet()) {
+      if (cancelPending && PENDING.remove(resolution) != null) {
+        resolution.cancel(false);
+      } else {
+        resolutions.add(resolution);
+      }
+    }
+
+    // A resolution is added to RUNNING before it is removed from PENDING, so none are missed
+    resolutions.addAll(RUNNING);
+    for (CompletableFuture<PluginClasspath> resolution : resolutions) {
+      try {
+        resolution.join();
+      } catch (CancellationException | CompletionException e) {
+        // Ignored
+      }
+    }
+  }
+
+  /**
+   * @return True if the current thread is resolving a plugin in the background.
+   */
+  public static boolean isResolving() {
+    return RESOLVING.get();
   }
 
   /**
@@ -65,8 +161,201 @@ public class DefaultPluginLoader implements PluginLoader {
    */
   @Override
   public Plugin load(Artifact pluginDependency) {
-    output.debugln("Loading plugin [%s]", pluginDependency);
+    return instantiate(resolve(pluginDependency));
+  }
+
+  /**
+   * Resolves the plugin and creates its own class loader. This doesn't create the plugin instance.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @return The resolved plugin.
+   */
+  public ResolvedPlugin resolve(Artifact pluginDependency) {
+    checkWorkflow();
+
+    ResolvedPlugin cached = cachedPlugin(pluginDependency);
+    if (cached != null) {
+      return cached;
+    }
+
+    return link(resolveClasspath(pluginDependency), null);
+  }
+
+  /**
+   * Queues the resolution of the classpath of the plugin in the background using {@link #resolveClasspath(Artifact)}.
+   * At most {@link #RESOLVER_THREADS} plugins are resolved at the same time and {@link #await(CompletableFuture)}
+   * resolves a plugin that is still queued on the calling thread. The workflow of the project is checked right away so
+   * that a missing workflow is reported while the build file is evaluated.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @return The future classpath of the plugin.
+   */
+  public CompletableFuture<PluginClasspath> resolveAsync(Artifact pluginDependency) {
+    checkWorkflow();
+
+    CompletableFuture<PluginClasspath> resolution = new CompletableFuture<>();
+    PENDING.put(resolution, pluginDependency);
+    RESOLVERS.execute(() -> {
+      RUNNING.add(resolution);
+      try {
+        // Cancelled by awaitResolutions or started by await before it got a resolver
+        if (PENDING.remove(resolution) == null) {
+          return;
+        }
+
+        RESOLVING.set(true);
+        complete(resolution, pluginDependency);
+      } finally {
+        RESOLVING.set(false);
+        RUNNING.remove(resolution);
+      }
+    });
+
+    return resolution;
+  }
+
+  /**
+   * Resolves the classpath of the plugin and reads the plugin class name from its manifest. This uses the
+   * {@link PluginIndex} if it has an entry for the plugin and otherwise builds, reduces and resolves the dependency graph
+   * of the plugin.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @return The classpath of the plugin.
+   */
+  public PluginClasspath resolveClasspath(Artifact pluginDependency) {
+    try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("plugin", "Resolve [" + pluginDependency + "]", new BuildEvents.PluginResolution(pluginDependency.toString()))) {
+      output.debugln("Loading plugin [%s]", pluginDependency);
+
+      String key = PluginIndex.key(List.of(pluginDependency), project.workflow);
+      PluginIndex.Entry entry = key != null ? index.get(key) : null;
+      if (entry != null) {
+        output.debugln("Using the indexed classpath for plugin [%s]", pluginDependency);
+        return new PluginClasspath(pluginDependency, entry.classpath(), entry.dependencies(), entry.className());
+      }
+
+      ResolvedArtifactGraph resolvedArtifactGraph = resolveGraph(pluginDependency);
+      String pluginClassName = pluginClassName(pluginDependency, resolvedArtifactGraph.getPath(pluginDependency.id));
+      List<Path> classpath = toPaths(resolvedArtifactGraph.toClasspath());
+      output.debugln("Classpath for plugin [%s] is %s", pluginDependency, classpath);
+
+      Map<Path, List<Path>> dependencies = new LinkedHashMap<>();
+      for (ResolvedArtifact artifact : resolvedArtifactGraph.values()) {
+        if (artifact.file == null) {
+          continue;
+        }
+
+        for (Edge<ResolvedArtifact, String> edge : resolvedArtifactGraph.getOutboundEdges(artifact)) {
+          if (edge.getDestination().file != null) {
+            dependencies.computeIfAbsent(artifact.file, (file) -> new ArrayList<>()).add(edge.getDestination().file);
+          }
+        }
+      }
+
+      PluginClasspath pluginClasspath = new PluginClasspath(pluginDependency, classpath, dependencies, pluginClassName);
+      if (key != null) {
+        index.put(key, new PluginIndex.Entry(classpath, dependencies, pluginClassName));
+      }
+
+      return pluginClasspath;
+    }
+  }
+
+  /**
+   * Waits for the classpath of a plugin that is being resolved in the background. If the resolution is still queued
+   * behind other plugins, the plugin is resolved on the calling thread instead.
+   *
+   * @param resolution The resolution from {@link #resolveAsync(Artifact)}.
+   * @return The classpath of the plugin.
+   */
+  public PluginClasspath await(CompletableFuture<PluginClasspath> resolution) {
+    Artifact pluginDependency = PENDING.remove(resolution);
+    if (pluginDependency != null) {
+      complete(resolution, pluginDependency);
+    }
+
+    try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("plugin", "Wait for background resolution")) {
+      return resolution.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
 
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the plugin from the class loader cache of the build daemon.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @return The resolved plugin or null if the build isn't run by the daemon or the plugin isn't cached.
+   */
+  public ResolvedPlugin cachedPlugin(Artifact pluginDependency) {
+    DaemonCaches daemonCaches = runtimeConfiguration.daemonCaches;
+    DaemonCaches.PluginEntry cached = daemonCaches != null ? daemonCaches.getPlugin(pluginDependency) : null;
+    if (cached == null) {
+      return null;
+    }
+
+    output.debugln("Reusing the class loader of plugin [%s] from a previous build", pluginDependency);
+    return new ResolvedPlugin(pluginDependency, cached.classLoader, cached.className);
+  }
+
+  /**
+   * Creates the class loader of the plugin. If the shared libraries of the build file can be used by the plugin, the
+   * class loader is a child of the shared class loader that only loads the rest of the classpath of the plugin.
+   * Otherwise, the plugin gets its own class loader for its whole classpath.
+   *
+   * @param pluginClasspath The classpath of the plugin.
+   * @param shared          The shared libraries of the plugins of the build file or null.
+   * @return The resolved plugin.
+   */
+  public ResolvedPlugin link(PluginClasspath pluginClasspath, SharedPluginLibraries shared) {
+    Artifact pluginDependency = pluginClasspath.artifact();
+    List<Path> childClasspath = shared != null ? shared.childClasspath(pluginClasspath) : null;
+
+    // URLClassLoader is closeable, but we need to keep it open while Savant is running. Therefore, we do not wrap this
+    // in a try-with-resource block
+    @SuppressWarnings("resource") URLClassLoader pluginClassLoader;
+    if (childClasspath != null) {
+      output.debugln("Loading plugin [%s] in a child of the shared plugin class loader with the classpath %s", pluginDependency, childClasspath);
+      pluginClassLoader = new PluginClassLoader(childClasspath, shared.classLoader, indexDirectory());
+    } else {
+      pluginClassLoader = new PluginClassLoader(pluginClasspath.classpath(), indexDirectory());
+    }
+
+    cachePlugin(pluginDependency, pluginClassLoader, pluginClasspath.className(), pluginClasspath.classpath());
+    return new ResolvedPlugin(pluginDependency, pluginClassLoader, pluginClasspath.className());
+  }
+
+  /**
+   * Creates the plugin instance using the class loader of the resolved plugin.
+   *
+   * @param resolved The resolved plugin.
+   * @return The Plugin instance.
+   */
+  public Plugin instantiate(ResolvedPlugin resolved) {
+    try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("plugin", "Instantiate [" + resolved.artifact + "]", new BuildEvents.PluginInstantiation(resolved.artifact.toString()))) {
+      Plugin plugin = instantiate(resolved.artifact, resolved.classLoader, resolved.className);
+      runtimeConfiguration.listeners.pluginLoaded(resolved.artifact, plugin);
+      return plugin;
+    }
+  }
+
+  /**
+   * @return The directory that the plugin class loaders cache the directories of the JAR files in.
+   */
+  public Path indexDirectory() {
+    return SavantPaths.get().cacheDir().resolve("plugin-index/directories");
+  }
+
+  private void cachePlugin(Artifact pluginDependency, URLClassLoader pluginClassLoader, String pluginClassName, List<Path> classpath) {
+    if (runtimeConfiguration.daemonCaches != null) {
+      runtimeConfiguration.daemonCaches.putPlugin(pluginDependency, pluginClassLoader, pluginClassName, classpath);
+    }
+  }
+
+  private void checkWorkflow() {
     if (project.workflow == null || project.workflow.fetchWorkflow == null || project.workflow.fetchWorkflow.processes.isEmpty() ||
         project.workflow.publishWorkflow == null || project.workflow.publishWorkflow.processes.isEmpty()) {
       output.errorln("""
@@ -79,38 +368,20 @@ public class DefaultPluginLoader implements PluginLoader {
             }""");
       throw new BuildFailureException();
     }
+  }
 
-    // This doesn't use the project as the root because the project might be in the graph and that would cause failures.
-    // This is how Savant is self building
-    ReifiedArtifact root = new ReifiedArtifact("__savantLoadPluginGroup__:__savantLoadPluginName__:0.0.0", License.Licenses.get("ApacheV2_0"));
-    Dependencies dependencies = new Dependencies(new DependencyGroup("runtime", false, pluginDependency));
-    DependencyGraph dependencyGraph = project.dependencyService.buildGraph(root, dependencies, project.workflow);
-    ArtifactGraph artifactGraph = project.dependencyService.reduce(dependencyGraph);
-    ResolvedArtifactGraph resolvedArtifactGraph = project.dependencyService.resolve(artifactGraph, project.workflow, RESOLVE_CONFIGURATION);
-
-    Path pluginJarFilePath = resolvedArtifactGraph.getPath(pluginDependency.id);
-    String pluginClassName = null;
-    try (JarFile pluginJarFile = new JarFile(pluginJarFilePath.toFile())) {
-      Manifest manifest = pluginJarFile.getManifest();
-      if (manifest == null) {
-        throw new PluginLoadException("Invalid plugin [" + pluginDependency + "]. The JAR file does not contain a valid Manifest entry for Savant-Plugin-Class");
-      }
-
-      pluginClassName = manifest.getMainAttributes().getValue("Savant-Plugin-Class");
-      if (pluginClassName == null) {
-        throw new PluginLoadException("Invalid plugin [" + pluginDependency + "]. The JAR file does not contain a valid Manifest entry for Savant-Plugin-Class");
-      }
-
-      Classpath classpath = resolvedArtifactGraph.toClasspath();
-      output.debugln("Classpath for plugin [%s] is [%s]", pluginDependency, classpath);
+  private void complete(CompletableFuture<PluginClasspath> resolution, Artifact pluginDependency) {
+    try {
+      resolution.complete(resolveClasspath(pluginDependency));
+    } catch (Throwable t) {
+      resolution.completeExceptionally(t);
+    }
+  }
 
-      // URLClassLoader is closeable, but we need to keep it open while Savant is running. Therefore, we do not wrap this
-      // in a try-with-resource block
-      @SuppressWarnings("resource") URLClassLoader pluginClassLoader = classpath.toURLClassLoader();
+  private Plugin instantiate(Artifact pluginDependency, ClassLoader pluginClassLoader, String pluginClassName) {
+    try {
       Class<?> pluginClass = pluginClassLoader.loadClass(pluginClassName);
       return (Plugin) pluginClass.getConstructor(Project.class, RuntimeConfiguration.class, Output.class).newInstance(project, runtimeConfiguration, output);
-    } catch (IOException e) {
-      throw new PluginLoadException("Unable to load plugin [" + pluginDependency + "] because the plugin JAR could not be read", e);
     } catch (ClassNotFoundException e) {
       throw new PluginLoadException("Unable to load plugin [" + pluginDependency + "] because the plugin class [" + pluginClassName + "] was not in the plugin JAR", e);
     } catch (ClassCastException e) {
@@ -128,4 +399,83 @@ public class DefaultPluginLoader implements PluginLoader {
       throw new PluginLoadException("Unable to load plugin [" + pluginDependency + "] because the plugin class [" + pluginClassName + "] could not be instantiated", e);
     }
   }
+
+  private String pluginClassName(Artifact pluginDependency, Path pluginJarFilePath) {
+    try (JarFile pluginJarFile = new JarFile(pluginJarFilePath.toFile())) {
+      Manifest manifest = pluginJarFile.getManifest();
+      if (manifest == null) {
+        throw new PluginLoadException("Invalid plugin [" + pluginDependency + "]. The JAR file does not contain a valid Manifest entry for Savant-Plugin-Class");
+      }
+
+      String pluginClassName = manifest.getMainAttributes().getValue("Savant-Plugin-Class");
+      if (pluginClassName == null) {
+        throw new PluginLoadException("Invalid plugin [" + pluginDependency + "]. The JAR file does not contain a valid Manifest entry for Savant-Plugin-Class");
+      }
+
+      return pluginClassName;
+    } catch (IOException e) {
+      throw new PluginLoadException("Unable to load plugin [" + pluginDependency + "] because the plugin JAR could not be read", e);
+    }
+  }
+
+  private ResolvedArtifactGraph resolveGraph(Artifact... pluginDependencies) {
+    // This doesn't use the project as the root because the project might be in the graph and that would cause failures.
+    // This is how Savant is self building
+    ReifiedArtifact root = new ReifiedArtifact("__savantLoadPluginGroup__:__savantLoadPluginName__:0.0.0", License.Licenses.get("ApacheV2_0"));
+    Dependencies dependencies = new Dependencies(new DependencyGroup("runtime", false, pluginDependencies));
+    BuildTimings timings = runtimeConfiguration.timings;
+    DependencyGraph dependencyGraph;
+    try (BuildTimings.Timer ignore = timings.start("dependency", "Build plugin dependency graph")) {
+      dependencyGraph = project.dependencyService.buildGraph(root, dependencies, project.workflow);
+    }
+
+    ArtifactGraph artifactGraph;
+    try (BuildTimings.Timer ignore = timings.start("dependency", "Reduce plugin dependency graph")) {
+      artifactGraph = project.dependencyService.reduce(dependencyGraph);
+    }
+
+    ResolvedArtifactGraph resolvedArtifactGraph;
+    try (BuildTimings.Timer ignore = timings.start("dependency", "Fetch plugin artifacts")) {
+      resolvedArtifactGraph = project.dependencyService.resolve(artifactGraph, project.workflow, RESOLVE_CONFIGURATION);
+    }
+
+    runtimeConfiguration.listeners.pluginDependenciesResolved(List.of(pluginDependencies), resolvedArtifactGraph);
+    return resolvedArtifactGraph;
+  }
+
+  private List<Path> toPaths(Classpath classpath) {
+    // The Classpath only exposes its entries through a URLClassLoader, which doesn't open the JAR files until it is used
+    List<Path> paths = new ArrayList<>();
+    try (URLClassLoader urlClassLoader = classpath.toURLClassLoader()) {
+      for (URL url : urlClassLoader.getURLs()) {
+        paths.add(Paths.get(url.toURI()));
+      }
+    } catch (IOException | URISyntaxException e) {
+      throw new PluginLoadException("Invalid plugin classpath [" + classpath + "]", e);
+    }
+
+    return paths;
+  }
+
+  /**
+   * A plugin whose dependencies have been resolved and whose class loader has been created, but that hasn't been
+   * instantiated yet.
+   *
+   * @param artifact    The dependency definition of the plugin.
+   * @param classLoader The class loader of the plugin.
+   * @param className   The name of the plugin class from the Savant-Plugin-Class manifest entry.
+   */
+  public record ResolvedPlugin(Artifact artifact, ClassLoader classLoader, String className) {
+  }
+
+  /**
+   * The resolved classpath of a plugin.
+   *
+   * @param artifact     The dependency definition of the plugin.
+   * @param classpath    The JAR files of the plugin and all its dependencies.
+   * @param dependencies The JAR files that each JAR file on the classpath directly depends on.
+   * @param className    The name of the plugin class from the Savant-Plugin-Class manifest entry.
+   */
+  public record PluginClasspath(Artifact artifact, List<Path> classpath, Map<Path, List<Path>> dependencies, String className) {
+  }
 }
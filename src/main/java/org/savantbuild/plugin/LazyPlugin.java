@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.savantbuild.dep.domain.Artifact;
+
+import groovy.lang.GroovyObjectSupport;
+
+/**
+ * A handle to a plugin that is only resolved and instantiated the first time it is actually used. This allows build
+ * files to load many plugins without paying for the resolution of the plugins that the targets being run never call.
+ * <p>
+ * Property assignments made before the plugin is loaded, like {@code java.settings.javaVersion = "17"}, are recorded
+ * and replayed on the real plugin in the order they were made once it is loaded. Any method call on the handle (or on a
+ * property read from it) loads the plugin and is forwarded to it.
+ * <p>
+ * Plugins that must be created while the build file is evaluated (for example because their constructor modifies the
+ * project) can be loaded eagerly using {@code loadPlugin(id: "...", lazy: false)}.
+ *
+ * @author Brian Pontarelli
+ */
+public class LazyPlugin extends GroovyObjectSupport implements Plugin {
+  public final Artifact pluginDependency;
+
+  private final List<Assignment> assignments = new ArrayList<>();
+
+  private final PluginLoader loader;
+
+  private Plugin plugin;
+
+  public LazyPlugin(Artifact pluginDependency, PluginLoader loader) {
+    this.pluginDependency = pluginDependency;
+    this.loader = loader;
+  }
+
+  /**
+   * Loads the plugin if it hasn't been loaded yet and replays the recorded property assignments on it.
+   *
+   * @return The plugin.
+   */
+  public synchronized Plugin getPlugin() {
+    if (plugin == null) {
+      plugin = loader.load(pluginDependency);
+
+      List<Assignment> recorded = new ArrayList<>(assignments);
+      assignments.clear();
+      for (Assignment assignment : recorded) {
+        Object target = plugin;
+        for (String property : assignment.path) {
+          target = InvokerHelper.getProperty(target, property);
+        }
+
+        InvokerHelper.setProperty(target, assignment.property, unwrap(assignment.value));
+      }
+    }
+
+    return plugin;
+  }
+
+  @Override
+  public synchronized Object getProperty(String propertyName) {
+    if (plugin != null) {
+      return InvokerHelper.getProperty(plugin, propertyName);
+    }
+
+    return new PropertyRecorder(List.of(propertyName));
+  }
+
+  @Override
+  public Object invokeMethod(String name, Object args) {
+    return InvokerHelper.invokeMethod(getPlugin(), name, args);
+  }
+
+  /**
+   * @return True if the plugin has been loaded.
+   */
+  public synchronized boolean isLoaded() {
+    return plugin != null;
+  }
+
+  @Override
+  public synchronized void setProperty(String propertyName, Object newValue) {
+    record(List.of(), propertyName, newValue);
+  }
+
+  @Override
+  public String toString() {
+    return "LazyPlugin [" + pluginDependency + "]";
+  }
+
+  private synchronized void record(List<String> path, String property, Object value) {
+    if (plugin != null) {
+      Object target = plugin;
+      for (String name : path) {
+        target = InvokerHelper.getProperty(target, name);
+      }
+
+      InvokerHelper.setProperty(target, property, unwrap(value));
+      return;
+    }
+
+    assignments.add(new Assignment(path, property, value));
+  }
+
+  private Object unwrap(Object value) {
+    return value instanceof PropertyRecorder recorder ? recorder.resolve() : value;
+  }
+
+  private record Assignment(List<String> path, String property, Object value) {
+  }
+
+  /**
+   * A property of a plugin that hasn't been loaded yet. Setting properties on it is recorded and anything else loads
+   * the plugin and is forwarded to the real property value.
+   */
+  public class PropertyRecorder extends GroovyObjectSupport {
+    private final List<String> path;
+
+    private PropertyRecorder(List<String> path) {
+      this.path = path;
+    }
+
+    public boolean asBoolean() {
+      return DefaultTypeTransformation.castToBoolean(resolve());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return resolve().equals(unwrap(o));
+    }
+
+    @Override
+    public Object getProperty(String propertyName) {
+      synchronized (LazyPlugin.this) {
+        if (plugin != null) {
+          return InvokerHelper.getProperty(resolve(), propertyName);
+        }
+
+        List<String> child = new ArrayList<>(path);
+        child.add(propertyName);
+        return new PropertyRecorder(child);
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return resolve().hashCode();
+    }
+
+    @Override
+    public Object invokeMethod(String name, Object args) {
+      return InvokerHelper.invokeMethod(resolve(), name, args);
+    }
+
+    /**
+     * Loads the plugin and returns the value of this property from it.
+     *
+     * @return The property value.
+     */
+    public Object resolve() {
+      Object target = getPlugin();
+      for (String name : path) {
+        target = InvokerHelper.getProperty(target, name);
+      }
+
+      return target;
+    }
+
+    @Override
+    public void setProperty(String propertyName, Object newValue) {
+      record(path, propertyName, newValue);
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(resolve());
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.plugin.DefaultPluginLoader.PluginClasspath;
+import org.savantbuild.plugin.DefaultPluginLoader.ResolvedPlugin;
+
+/**
+ * The lazy plugins of a build file. Each plugin is queued for resolution in the background as soon as it is added (when
+ * the build file calls loadPlugin), so the resolutions overlap with each other and with the evaluation of the build
+ * file. Nothing waits for a resolution until a target first uses the plugin and the queued resolutions of the plugins
+ * that are never used are cancelled when the build exits.
+ * <p>
+ * The JAR files that the plugins have in common are loaded by a shared parent class loader (see
+ * {@link SharedPluginLibraries}) and each plugin gets a child class loader for the rest of its classpath. The shared
+ * libraries are determined from the plugins that have been resolved when the first plugin is used. If the plugins
+ * resolved by then don't have anything in common, this is tried again when the next plugin is used.
+ *
+ * @author Brian Pontarelli
+ */
+public class PluginBatch implements PluginLoader {
+  /**
+   * The plugins whose class loaders have been created, including the ones from the class loader cache of the daemon.
+   */
+  private final Map<Artifact, ResolvedPlugin> linked = new HashMap<>();
+
+  private final DefaultPluginLoader loader;
+
+  private final Map<Artifact, CompletableFuture<PluginClasspath>> resolutions = new LinkedHashMap<>();
+
+  private SharedPluginLibraries shared;
+
+  public PluginBatch(DefaultPluginLoader loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Adds the plugin to the batch and queues its resolution in the background unless the build daemon has its class
+   * loader from a previous build.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   */
+  public synchronized void add(Artifact pluginDependency) {
+    if (linked.containsKey(pluginDependency) || resolutions.containsKey(pluginDependency)) {
+      return;
+    }
+
+    ResolvedPlugin resolved = loader.cachedPlugin(pluginDependency);
+    if (resolved != null) {
+      linked.put(pluginDependency, resolved);
+    } else {
+      resolutions.put(pluginDependency, loader.resolveAsync(pluginDependency));
+    }
+  }
+
+  /**
+   * Waits for the resolution of the plugin (starting it if needed), creates its class loader and creates the plugin
+   * instance.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @return The Plugin instance.
+   */
+  @Override
+  public Plugin load(Artifact pluginDependency) {
+    ResolvedPlugin resolved;
+    CompletableFuture<PluginClasspath> resolution;
+    synchronized (this) {
+      add(pluginDependency);
+      resolved = linked.get(pluginDependency);
+      resolution = resolutions.get(pluginDependency);
+    }
+
+    if (resolved == null) {
+      resolved = link(loader.await(resolution));
+    }
+
+    return loader.instantiate(resolved);
+  }
+
+  private synchronized ResolvedPlugin link(PluginClasspath pluginClasspath) {
+    ResolvedPlugin resolved = linked.get(pluginClasspath.artifact());
+    if (resolved != null) {
+      return resolved;
+    }
+
+    if (shared == null || shared.classLoader == null) {
+      List<PluginClasspath> completed = new ArrayList<>();
+      for (CompletableFuture<PluginClasspath> resolution : resolutions.values()) {
+        if (resolution.isDone() && !resolution.isCompletedExceptionally()) {
+          completed.add(resolution.join());
+        }
+      }
+
+      shared = SharedPluginLibraries.create(completed, loader.indexDirectory());
+    }
+
+    resolved = loader.link(pluginClasspath, shared);
+    linked.put(pluginClasspath.artifact(), resolved);
+    return resolved;
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
+
+/**
+ * The class loader of plugins. Rather than searching every JAR on the classpath in order for each class and resource
+ * like the URLClassLoader does, this builds an index from each directory (package) to the JAR files that contain it
+ * when it is created. Lookups then only open the JAR files that can contain the class or resource.
+ * <p>
+ * The directories of each JAR file are cached in the given index directory, keyed by the path, size and last modified
+ * time of the JAR file, so that the JAR files don't need to be scanned again on the next build. The cache files are
+ * memory mapped when they are read.
+ * <p>
+ * This class loader is registered as parallel capable so that targets running in parallel can load classes from the
+ * same plugin without contending on a single class loader lock.
+ *
+ * @author Brian Pontarelli
+ */
+public class PluginClassLoader extends URLClassLoader {
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
+  private final Map<Path, URL> baseURLs = new HashMap<>();
+
+  private final Map<String, List<Path>> directories = new HashMap<>();
+
+  private final Map<Path, URL> fileURLs = new HashMap<>();
+
+  private final boolean hasDirectories;
+
+  private final Map<Path, JarFile> jarFiles = new ConcurrentHashMap<>();
+
+  private volatile boolean closed;
+
+  /**
+   * Creates the class loader and indexes the JAR files on the classpath.
+   *
+   * @param classpath      The classpath.
+   * @param indexDirectory The directory that the directories of the JAR files are cached in or null to always scan
+   *                       them.
+   * @throws PluginLoadException If a JAR file can't be read.
+   */
+  public PluginClassLoader(List<Path> classpath, Path indexDirectory) throws PluginLoadException {
+    this(classpath, ClassLoader.getSystemClassLoader(), indexDirectory);
+  }
+
+  /**
+   * Creates the class loader with the given parent and indexes the JAR files on the classpath.
+   *
+   * @param classpath      The classpath.
+   * @param parent         The parent class loader.
+   * @param indexDirectory The directory that the directories of the JAR files are cached in or null to always scan
+   *                       them.
+   * @throws PluginLoadException If a JAR file can't be read.
+   */
+  public PluginClassLoader(List<Path> classpath, ClassLoader parent, Path indexDirectory) throws PluginLoadException {
+    super(toURLs(classpath), parent);
+
+    boolean hasDirectories = false;
+    for (Path path : classpath) {
+      if (!Files.isRegularFile(path)) {
+        hasDirectories = true;
+        continue;
+      }
+
+      try {
+        URL fileURL = path.toUri().toURL();
+        fileURLs.put(path, fileURL);
+        baseURLs.put(path, new URL("jar:" + fileURL + "!/"));
+        for (String directory : directories(path, indexDirectory)) {
+          directories.computeIfAbsent(directory, (key) -> new ArrayList<>(1)).add(path);
+        }
+      } catch (IOException | UncheckedIOException e) {
+        throw new PluginLoadException("Unable to index the plugin classpath entry [" + path + "]", e);
+      }
+    }
+
+    this.hasDirectories = hasDirectories;
+  }
+
+  /**
+   * Returns the directories of the given JAR file. This uses the cached directories if the JAR file hasn't changed
+   * since they were cached.
+   *
+   * @param jar            The JAR file.
+   * @param indexDirectory The index directory or null.
+   * @return The directories including the trailing slash, with the root directory as the empty String.
+   * @throws IOException If the JAR file can't be read.
+   */
+  static List<String> directories(Path jar, Path indexDirectory) throws IOException {
+    Path cacheFile = null;
+    if (indexDirectory != null) {
+      cacheFile = indexDirectory.resolve(hash(jar.toAbsolutePath() + "\n" + Files.size(jar) + "\n" + Files.getLastModifiedTime(jar).toMillis()) + ".directories");
+      if (Files.isRegularFile(cacheFile)) {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+          MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+          return StandardCharsets.UTF_8.decode(buffer).toString().lines().toList();
+        }
+      }
+    }
+
+    Set<String> directories = new LinkedHashSet<>();
+    try (JarFile jarFile = new JarFile(jar.toFile())) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+
+        // Multi-release versions are found through the base name since the JAR files are opened for the runtime version
+        if (name.startsWith("META-INF/versions/")) {
+          int start = name.indexOf('/', "META-INF/versions/".length());
+          if (start > 0) {
+            name = name.substring(start + 1);
+          }
+        }
+
+        directories.add(name.substring(0, name.lastIndexOf('/') + 1));
+      }
+    }
+
+    if (cacheFile != null) {
+      Files.createDirectories(indexDirectory);
+      Path temp = Files.createTempFile(indexDirectory, cacheFile.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+        for (String directory : directories) {
+          writer.write(directory + "\n");
+        }
+      }
+
+      Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    return new ArrayList<>(directories);
+  }
+
+  private static String hash(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static URL[] toURLs(List<Path> classpath) {
+    URL[] urls = new URL[classpath.size()];
+    try {
+      for (int i = 0; i < urls.length; i++) {
+        urls[i] = classpath.get(i).toUri().toURL();
+      }
+    } catch (MalformedURLException e) {
+      throw new PluginLoadException("Invalid plugin classpath", e);
+    }
+
+    return urls;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    for (JarFile jarFile : jarFiles.values()) {
+      jarFile.close();
+    }
+
+    jarFiles.clear();
+    super.close();
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    String entryName = name.replace('.', '/') + ".class";
+    for (Path jar : candidates(entryName)) {
+      JarFile jarFile = jarFile(jar);
+      JarEntry entry = jarFile != null ? jarFile.getJarEntry(entryName) : null;
+      if (entry == null) {
+        continue;
+      }
+
+      try {
+        byte[] bytes;
+        try (InputStream is = jarFile.getInputStream(entry)) {
+          bytes = is.readAllBytes();
+        }
+
+        int index = name.lastIndexOf('.');
+        if (index > 0) {
+          definePackageIfNeeded(name.substring(0, index), jarFile.getManifest(), fileURLs.get(jar));
+        }
+
+        // The code signers are only available after the entry has been read
+        return defineClass(name, bytes, 0, bytes.length, new CodeSource(fileURLs.get(jar), entry.getCodeSigners()));
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+
+    if (hasDirectories) {
+      return super.findClass(name);
+    }
+
+    throw new ClassNotFoundException(name);
+  }
+
+  @Override
+  public URL findResource(String name) {
+    for (Path jar : candidates(name)) {
+      JarFile jarFile = jarFile(jar);
+      if (jarFile != null && jarFile.getJarEntry(name) != null) {
+        return resourceURL(jar, name);
+      }
+    }
+
+    return hasDirectories ? super.findResource(name) : null;
+  }
+
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    if (hasDirectories) {
+      return super.findResources(name);
+    }
+
+    List<URL> urls = new ArrayList<>();
+    for (Path jar : candidates(name)) {
+      JarFile jarFile = jarFile(jar);
+      if (jarFile != null && jarFile.getJarEntry(name) != null) {
+        urls.add(resourceURL(jar, name));
+      }
+    }
+
+    return Collections.enumeration(urls);
+  }
+
+  private List<Path> candidates(String name) {
+    List<Path> candidates = directories.get(name.substring(0, name.lastIndexOf('/') + 1));
+    return candidates != null ? candidates : List.of();
+  }
+
+  private void definePackageIfNeeded(String packageName, Manifest manifest, URL url) {
+    if (getDefinedPackage(packageName) != null) {
+      return;
+    }
+
+    try {
+      if (manifest != null) {
+        definePackage(packageName, manifest, url);
+      } else {
+        definePackage(packageName, null, null, null, null, null, null, null);
+      }
+    } catch (IllegalArgumentException e) {
+      // Another thread defined the package first
+    }
+  }
+
+  private JarFile jarFile(Path jar) {
+    // Like the URLClassLoader, a closed class loader doesn't open the JAR files again
+    if (closed) {
+      return null;
+    }
+
+    try {
+      return jarFiles.computeIfAbsent(jar, (path) -> {
+        try {
+          return new JarFile(path.toFile(), true, ZipFile.OPEN_READ, Runtime.version());
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      // Treat unreadable JAR files like the URLClassLoader does and skip them
+      return null;
+    }
+  }
+
+  private URL resourceURL(Path jar, String name) {
+    try {
+      return new URL(baseURLs.get(jar), name);
+    } catch (MalformedURLException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.dep.workflow.process.MavenProcess;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.SVNProcess;
+import org.savantbuild.dep.workflow.process.URLProcess;
+import org.savantbuild.output.Output;
+import org.savantbuild.runtime.HTTPProcess;
+import org.savantbuild.runtime.LockVerificationProcess;
+import org.savantbuild.runtime.PrefetchProcess;
+import org.savantbuild.runtime.RepositoryLookupProcess;
+
+/**
+ * An on-disk index of plugin resolutions. Resolving a plugin builds, reduces and resolves its dependency graph, which
+ * reads the AMD files of every artifact in the graph even if they are all in the local cache. The index stores the
+ * result of this (the classpath, the dependencies between the JAR files on it and the Savant-Plugin-Class of the plugin)
+ * so that loading a plugin on a warm cache is a single file read.
+ * <p>
+ * Entries are keyed by the plugin artifacts and the parts of the workflow that affect resolution (the processes and
+ * their locations and the version mappings). An entry is only used if every file on its classpath still has the size
+ * and last modified time it had when the entry was stored. Integration versions of plugins are never indexed since
+ * their dependencies can change without the version changing.
+ *
+ * @author Brian Pontarelli
+ */
+public class PluginIndex {
+  private static final String VERSION = "2";
+
+  private final Path directory;
+
+  private final Output output;
+
+  public PluginIndex(Path directory, Output output) {
+    this.directory = directory;
+    this.output = output;
+  }
+
+  /**
+   * Computes the key of the index entry for the given plugins.
+   *
+   * @param pluginDependencies The plugins that are resolved together.
+   * @param workflow           The workflow used to resolve the plugins.
+   * @return The key or null if the plugins can't be indexed.
+   */
+  public static String key(List<Artifact> pluginDependencies, Workflow workflow) {
+    StringBuilder build = new StringBuilder(VERSION).append('\n');
+    for (Artifact pluginDependency : pluginDependencies) {
+      if (pluginDependency.version != null && pluginDependency.version.toString().contains("{integration}")) {
+        return null;
+      }
+
+      build.append("plugin ").append(pluginDependency).append('\n');
+    }
+
+    appendProcesses(build, "fetch", workflow.fetchWorkflow.processes);
+    appendProcesses(build, "publish", workflow.publishWorkflow.processes);
+    new TreeMap<>(workflow.mappings).forEach((from, to) -> build.append("mapping ").append(from).append('=').append(to).append('\n'));
+    new TreeMap<>(workflow.rangeMappings).forEach((from, to) -> build.append("range ").append(from).append('=').append(to).append('\n'));
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(build.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static void appendProcesses(StringBuilder build, String kind, List<Process> processes) {
+    for (Process process : processes) {
+      // The prefetch process never fetches anything itself and the lock verification only checks what the others fetch
+      if (process instanceof PrefetchProcess) {
+        continue;
+      } else if (process instanceof LockVerificationProcess verification) {
+        appendProcesses(build, kind, verification.processes);
+        continue;
+      }
+
+      build.append(kind).append(' ').append(process.getClass().getName());
+      if (process instanceof CacheProcess cache) {
+        build.append(' ').append(cache.savantDir).append(' ').append(cache.integrationDir).append(' ').append(cache.mavenDir);
+      } else if (process instanceof HTTPProcess http) {
+        build.append(' ').append(http.url).append(' ').append(http.source);
+      } else if (process instanceof URLProcess url) {
+        build.append(' ').append(url.url);
+      } else if (process instanceof MavenProcess maven) {
+        build.append(' ').append(maven.url);
+      } else if (process instanceof SVNProcess svn) {
+        build.append(' ').append(svn.repository);
+      }
+
+      build.append('\n');
+      if (process instanceof RepositoryLookupProcess lookup) {
+        appendProcesses(build, kind + (lookup.preferGroupRepository ? "-lookup-preferred" : "-lookup"), lookup.processes);
+      }
+    }
+  }
+
+
+  /**
+   * Loads the entry with the given key.
+   *
+   * @param key The key.
+   * @return The entry or null if there isn't one or any of the files on its classpath changed.
+   */
+  public Entry get(String key) {
+    Path file = directory.resolve(key + ".index");
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    List<Path> classpath = new ArrayList<>();
+    Map<Path, List<Path>> dependencies = new LinkedHashMap<>();
+    String className = null;
+    try (BufferedReader reader = Files.newBufferedReader(file)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.split("\t");
+        if (parts[0].equals("class") && parts.length == 2) {
+          className = parts[1];
+        } else if (parts[0].equals("depends") && parts.length == 3) {
+          dependencies.computeIfAbsent(classpath.get(Integer.parseInt(parts[1])), (jar) -> new ArrayList<>())
+                      .add(classpath.get(Integer.parseInt(parts[2])));
+        } else if (parts[0].equals("path") && parts.length == 4) {
+          Path path = Paths.get(parts[3]);
+          if (!Files.isRegularFile(path) || Files.size(path) != Long.parseLong(parts[1]) ||
+              Files.getLastModifiedTime(path).toMillis() != Long.parseLong(parts[2])) {
+            output.debugln("The plugin index entry [%s] is stale because [%s] changed", key, path);
+            return null;
+          }
+
+          classpath.add(path);
+        } else {
+          return null;
+        }
+      }
+    } catch (IOException | IndexOutOfBoundsException | NumberFormatException e) {
+      return null;
+    }
+
+    return className != null ? new Entry(classpath, dependencies, className) : null;
+  }
+
+  /**
+   * Stores the entry under the given key. Failures are ignored since the index is only an optimization.
+   *
+   * @param key   The key.
+   * @param entry The entry.
+   */
+  public void put(String key, Entry entry) {
+    try {
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, key, ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+        writer.write("class\t" + entry.className + "\n");
+        for (Path path : entry.classpath) {
+          writer.write("path\t" + Files.size(path) + "\t" + Files.getLastModifiedTime(path).toMillis() + "\t" + path + "\n");
+        }
+
+        // The dependencies are written last and refer to the classpath by position
+        for (Map.Entry<Path, List<Path>> dependency : entry.dependencies.entrySet()) {
+          int from = entry.classpath.indexOf(dependency.getKey());
+          for (Path to : dependency.getValue()) {
+            writer.write("depends\t" + from + "\t" + entry.classpath.indexOf(to) + "\n");
+          }
+        }
+      }
+
+      Files.move(temp, directory.resolve(key + ".index"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      output.debugln("Unable to store the plugin index entry [%s]. %s", key, e.getMessage());
+    }
+  }
+
+  /**
+   * The resolution of a plugin.
+   *
+   * @param classpath    The JAR files of the plugin and all its dependencies.
+   * @param dependencies The JAR files that each JAR file on the classpath directly depends on.
+   * @param className    The Savant-Plugin-Class of the plugin.
+   */
+  public record Entry(List<Path> classpath, Map<Path, List<Path>> dependencies, String className) {
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.savantbuild.plugin.DefaultPluginLoader.PluginClasspath;
+
+/**
+ * The JAR files that the plugins of a build file have in common (savant-utils, savant-dependency-management, etc.).
+ * These are loaded once by a shared parent class loader and each plugin gets a child class loader for the rest of its
+ * classpath.
+ * <p>
+ * A JAR file is shared if at least two plugins have it, it has the same dependencies in all of them and all of its
+ * dependencies are shared as well. Otherwise, the classes in the parent would either reference classes that only a
+ * child can load or see different versions of their dependencies than the plugin graphs resolved.
+ * <p>
+ * The JAR files are identified by their path. Since the repositories and caches lay out artifacts as
+ * {@code group/project/version/file}, the directory above the version directory identifies the artifact. A plugin that
+ * has a different version of a shared artifact can't use the parent (it would load the shared version first), so it
+ * gets a standalone class loader instead.
+ *
+ * @author Brian Pontarelli
+ */
+public class SharedPluginLibraries {
+  /**
+   * The shared parent class loader or null if the plugins don't have any JAR files in common.
+   */
+  public final PluginClassLoader classLoader;
+
+  private final Set<Path> artifacts = new HashSet<>();
+
+  private final Map<Path, Set<Path>> dependencies = new HashMap<>();
+
+  private SharedPluginLibraries(Map<Path, Set<Path>> dependencies, Path indexDirectory) {
+    this.dependencies.putAll(dependencies);
+    for (Path jar : dependencies.keySet()) {
+      artifacts.add(artifact(jar));
+    }
+
+    this.classLoader = dependencies.isEmpty() ? null : new PluginClassLoader(new ArrayList<>(dependencies.keySet()), indexDirectory);
+  }
+
+  /**
+   * Determines the JAR files that the given plugins have in common and creates the parent class loader for them.
+   *
+   * @param plugins        The resolved plugins.
+   * @param indexDirectory The directory that the class loader caches the directories of the JAR files in.
+   * @return The shared libraries.
+   */
+  public static SharedPluginLibraries create(Collection<PluginClasspath> plugins, Path indexDirectory) {
+    Map<Path, Integer> counts = new HashMap<>();
+    Map<Path, Set<Path>> shared = new LinkedHashMap<>();
+    Set<Path> mismatched = new HashSet<>();
+    for (PluginClasspath plugin : plugins) {
+      for (Path jar : plugin.classpath()) {
+        Set<Path> jarDependencies = dependencies(plugin, jar);
+        Set<Path> previous = shared.putIfAbsent(jar, jarDependencies);
+        if (previous != null && !previous.equals(jarDependencies)) {
+          mismatched.add(jar);
+        }
+
+        counts.merge(jar, 1, Integer::sum);
+      }
+    }
+
+    shared.keySet().removeIf((jar) -> counts.get(jar) < 2 || mismatched.contains(jar));
+
+    // Remove the JAR files whose dependencies aren't all shared until nothing changes
+    boolean removed = true;
+    while (removed) {
+      removed = shared.entrySet().removeIf((entry) -> !shared.keySet().containsAll(entry.getValue()));
+    }
+
+    return new SharedPluginLibraries(shared, indexDirectory);
+  }
+
+  private static Set<Path> dependencies(PluginClasspath plugin, Path jar) {
+    return new HashSet<>(plugin.dependencies().getOrDefault(jar, List.of()));
+  }
+
+  private static Path artifact(Path jar) {
+    Path versionDirectory = jar.toAbsolutePath().getParent();
+    return versionDirectory != null && versionDirectory.getParent() != null ? versionDirectory.getParent() : jar;
+  }
+
+  /**
+   * Determines the part of the classpath of the plugin that its child class loader loads.
+   *
+   * @param plugin The resolved plugin.
+   * @return The JAR files that aren't shared or null if the plugin can't use the shared parent class loader.
+   */
+  public List<Path> childClasspath(PluginClasspath plugin) {
+    if (classLoader == null) {
+      return null;
+    }
+
+    Set<Path> child = new LinkedHashSet<>();
+    boolean sharesAny = false;
+    for (Path jar : plugin.classpath()) {
+      if (dependencies.containsKey(jar)) {
+        if (!dependencies.get(jar).equals(dependencies(plugin, jar))) {
+          return null;
+        }
+
+        sharesAny = true;
+      } else if (artifacts.contains(artifact(jar))) {
+        return null;
+      } else {
+        child.add(jar);
+      }
+    }
+
+    return sharesAny ? new ArrayList<>(child) : null;
+  }
+}
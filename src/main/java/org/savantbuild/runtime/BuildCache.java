@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+
+/**
+ * Stores the archived outputs of targets by their cache key.
+ *
+ * @author Brian Pontarelli
+ */
+public interface BuildCache {
+  /**
+   * Finds the archive for the given key.
+   *
+   * @param key The cache key.
+   * @return The path to the archive on the local disk or null if the cache doesn't contain the key.
+   */
+  Path get(String key);
+
+  /**
+   * Stores the archive for the given key. The archive file is not modified or removed by the cache.
+   *
+   * @param key     The cache key.
+   * @param archive The archive.
+   */
+  void put(String key, Path archive);
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.savantbuild.util.SavantPaths;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A small build cache server that implements the protocol of the {@link HTTPBuildCache} and stores the entries in a
+ * {@link LocalBuildCache}. It only listens on the loopback address, which makes it useful for tests and for trying
+ * out the remote build cache. It can be started like this:
+ * <pre>
+ *   java -cp "lib/*" org.savantbuild.runtime.BuildCacheServer 7043 /tmp/build-cache
+ * </pre>
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildCacheServer {
+  private final LocalBuildCache cache;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final HttpServer server;
+
+  public BuildCacheServer(int port, Path directory) throws IOException {
+    this.cache = new LocalBuildCache(directory);
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    this.server.createContext("/", this::handle);
+    this.server.setExecutor(executor);
+  }
+
+  public static void main(String... args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 7043;
+    Path directory = args.length > 1 ? Paths.get(args[1]) : SavantPaths.get().cacheDir().resolve("build-cache-server");
+    BuildCacheServer server = new BuildCacheServer(port, directory);
+    server.start();
+    System.out.println("Build cache server listening on http://localhost:" + server.port() + "/ and storing entries in [" + directory + "]");
+  }
+
+  /**
+   * @return The port the server is listening on, which is useful when the server was created with port 0.
+   */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Handles a request. The request body is always consumed before the response is sent, otherwise the connection is
+   * reset instead of being reused for the next request.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    String key = path.substring(path.lastIndexOf('/') + 1);
+    try {
+      if (!key.matches("[0-9a-f]{2,}")) {
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(404, -1);
+      } else if (exchange.getRequestMethod().equals("GET")) {
+        exchange.getRequestBody().close();
+        Path file = cache.get(key);
+        if (file == null) {
+          exchange.sendResponseHeaders(404, -1);
+          return;
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/zip");
+        exchange.sendResponseHeaders(200, Files.size(file));
+        try (OutputStream os = exchange.getResponseBody()) {
+          Files.copy(file, os);
+        }
+      } else if (exchange.getRequestMethod().equals("PUT")) {
+        Path temp = Files.createTempFile("savant-build-cache-server", ".zip");
+        try (InputStream is = exchange.getRequestBody()) {
+          Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+          cache.put(key, temp);
+        } finally {
+          Files.deleteIfExists(temp);
+        }
+
+        exchange.sendResponseHeaders(201, -1);
+      } else {
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(405, -1);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.savantbuild.util.SavantPaths;
+
+/**
+ * An opt-in build daemon that runs builds for a single project directory in a long-running JVM. The daemon keeps the
+ * JIT-compiled JVM, the compiled build file and the plugin class loaders between builds (see {@link DaemonCaches}),
+ * which removes most of the startup time of a build.
+ * <p>
+ * The {@code sb} script starts the daemon and connects to it over a Unix domain socket when the
+ * {@code SAVANT_DAEMON} environment variable is set to {@code true}. The protocol is line based. The client sends the
+ * working directory, its environment variables (with backslashes and newlines escaped) and the arguments followed by an
+ * empty line:
+ * <pre>
+ *   dir /home/user/project
+ *   env HOME=/home/user
+ *   arg clean
+ *   arg int
+ *
+ * </pre>
+ * The daemon runs the build, streams the output of the build back to the client and ends the response with a line
+ * that contains the {@link #EXIT_MARKER} and the exit code of the build. Sending {@code stop} instead stops the daemon.
+ * <p>
+ * When the build reads from {@code System.in}, the daemon sends the {@link #INPUT_MARKER} (after any partial line of
+ * output such as a prompt) and the client answers with a line of its standard input ({@code in <line>}) or with
+ * {@code eof}.
+ * <p>
+ * The environment variables of a JVM can't be changed, so the daemon only runs builds for clients whose environment is
+ * the same as the environment it was started with. Otherwise, it sends the {@link #RESTART_MARKER} and stops so that the
+ * client can start a new daemon with its environment. Builds are run one at a time and the daemon stops itself after it
+ * has been idle for three hours.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildDaemon {
+  public static final String EXIT_MARKER = "\u001Eexit ";
+
+  public static final String INPUT_MARKER = "\u001Einput";
+
+  public static final String RESTART_MARKER = "\u001Erestart";
+
+  private static final long IDLE_TIMEOUT = TimeUnit.HOURS.toMillis(3);
+
+  /**
+   * The environment variables that the shell changes for every command and that therefore aren't compared.
+   */
+  private static final Set<String> VOLATILE_ENVIRONMENT = Set.of("_", "OLDPWD", "PWD", "SHLVL");
+
+  private final DaemonCaches caches = new DaemonCaches();
+
+  private final Path directory;
+
+  private final Path socket;
+
+  private volatile long lastRequest = System.currentTimeMillis();
+
+  public BuildDaemon(Path socket, Path directory) {
+    this.socket = socket;
+    this.directory = directory.toAbsolutePath().normalize();
+  }
+
+  public static void main(String... args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: org.savantbuild.runtime.BuildDaemon <socket-file>");
+      System.exit(1);
+    }
+
+    new BuildDaemon(Paths.get(args[0]), Paths.get("")).run();
+  }
+
+  /**
+   * Listens on the socket and runs builds until the daemon is stopped or idle for too long.
+   *
+   * @throws IOException If the socket can't be created.
+   */
+  public void run() throws IOException {
+    Files.deleteIfExists(socket);
+    try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server.bind(UnixDomainSocketAddress.of(socket));
+      startIdleTimer(server);
+
+      boolean running = true;
+      while (running) {
+        try (SocketChannel channel = server.accept()) {
+          running = handle(channel);
+        } catch (ClosedChannelException e) {
+          // The idle timer closed the server
+          running = false;
+        } catch (IOException e) {
+          // The client went away, so wait for the next one
+        }
+
+        lastRequest = System.currentTimeMillis();
+      }
+    } finally {
+      Files.deleteIfExists(socket);
+    }
+  }
+
+  private boolean handle(SocketChannel channel) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+    PrintStream out = new PrintStream(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8);
+    List<String> args = new ArrayList<>();
+    Map<String, String> environment = new HashMap<>();
+    String dir = null;
+    boolean stop = false;
+    String line;
+    while ((line = reader.readLine()) != null && !line.isEmpty()) {
+      if (line.startsWith("arg ")) {
+        args.add(line.substring(4));
+      } else if (line.startsWith("dir ")) {
+        dir = line.substring(4);
+      } else if (line.startsWith("env ")) {
+        int equals = line.indexOf('=');
+        if (equals > 4) {
+          environment.put(line.substring(4, equals), unescape(line.substring(equals + 1)));
+        }
+      } else if (line.equals("stop")) {
+        stop = true;
+      }
+    }
+
+    if (stop) {
+      out.print(EXIT_MARKER + "0\n");
+      out.flush();
+      return false;
+    }
+
+    int exitCode;
+    if (dir == null || !Paths.get(dir).toAbsolutePath().normalize().equals(directory)) {
+      out.println("The Savant daemon for the directory [" + directory + "] can't run builds in [" + dir + "]");
+      exitCode = 1;
+    } else if (!sameEnvironment(environment)) {
+      out.print(RESTART_MARKER + "\n");
+      out.flush();
+      return false;
+    } else {
+      exitCode = runBuild(args, reader, out);
+    }
+
+    out.print(EXIT_MARKER + exitCode + "\n");
+    out.flush();
+    return true;
+  }
+
+  private int runBuild(List<String> args, BufferedReader reader, PrintStream out) {
+    InputStream originalIn = System.in;
+    PrintStream originalOut = System.out;
+    PrintStream originalErr = System.err;
+    System.setIn(new ClientInputStream(reader, out));
+    System.setOut(out);
+    System.setErr(out);
+    try {
+      caches.invalidateIfChanged(SavantPaths.get().configDir().resolve("config.properties"));
+      return Main.run(caches, args.toArray(new String[0]));
+    } catch (Throwable t) {
+      t.printStackTrace(out);
+      return 1;
+    } finally {
+      System.setIn(originalIn);
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+  }
+
+  private boolean sameEnvironment(Map<String, String> environment) {
+    Map<String, String> current = new HashMap<>(System.getenv());
+    current.keySet().removeAll(VOLATILE_ENVIRONMENT);
+    environment.keySet().removeAll(VOLATILE_ENVIRONMENT);
+    return current.equals(environment);
+  }
+
+  private void startIdleTimer(ServerSocketChannel server) {
+    Thread timer = new Thread(() -> {
+      try {
+        while (System.currentTimeMillis() - lastRequest < IDLE_TIMEOUT) {
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        server.close();
+      } catch (InterruptedException | IOException e) {
+        // Nothing to do since the daemon is exiting
+      }
+    }, "Savant daemon idle timer");
+    timer.setDaemon(true);
+    timer.start();
+  }
+
+  private String unescape(String value) {
+    StringBuilder build = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        c = value.charAt(++i);
+        build.append(c == 'n' ? '\n' : c);
+      } else {
+        build.append(c);
+      }
+    }
+
+    return build.toString();
+  }
+
+  /**
+   * The standard input of a build run by the daemon. It asks the client for one line of its standard input at a time.
+   */
+  private static class ClientInputStream extends InputStream {
+    private final PrintStream out;
+
+    private final BufferedReader reader;
+
+    private byte[] buffer = new byte[0];
+
+    private boolean eof;
+
+    private int index;
+
+    ClientInputStream(BufferedReader reader, PrintStream out) {
+      this.reader = reader;
+      this.out = out;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      if (!fill()) {
+        return -1;
+      }
+
+      return buffer[index++] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+
+      if (!fill()) {
+        return -1;
+      }
+
+      int count = Math.min(length, buffer.length - index);
+      System.arraycopy(buffer, index, bytes, offset, count);
+      index += count;
+      return count;
+    }
+
+    private boolean fill() throws IOException {
+      if (index < buffer.length) {
+        return true;
+      }
+
+      if (eof) {
+        return false;
+      }
+
+      out.print(INPUT_MARKER + "\n");
+      out.flush();
+      String line = reader.readLine();
+      if (line == null || !line.startsWith("in ")) {
+        eof = true;
+        return false;
+      }
+
+      buffer = (line.substring(3) + "\n").getBytes(StandardCharsets.UTF_8);
+      index = 0;
+      return true;
+    }
+  }
+}
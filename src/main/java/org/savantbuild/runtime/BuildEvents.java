@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of Savant. These are started and committed by {@link BuildTimings} along with the
+ * span of the same phase, which means that the CPU, GC and I/O samples of a recording can be tied to the build file,
+ * plugin or target that was running at the time. Use them by running the build with JFR enabled like this:
+ * <pre>
+ *   JAVA_TOOL_OPTIONS="-XX:StartFlightRecording=filename=build.jfr" sb int
+ * </pre>
+ * <p>
+ * When JFR isn't recording, the events are never committed and beginning them is effectively free.
+ *
+ * @author Brian Pontarelli
+ */
+public final class BuildEvents {
+  private BuildEvents() {
+  }
+
+  @Name("org.savantbuild.BuildFileCompilation")
+  @Label("Build File Compilation")
+  @Category("Savant")
+  @Description("Compiling the build file or loading it from the compiled build file cache")
+  public static class BuildFileCompilation extends Event {
+    @Label("Build File")
+    public String buildFile;
+
+    public BuildFileCompilation(String buildFile) {
+      this.buildFile = buildFile;
+    }
+  }
+
+  @Name("org.savantbuild.BuildFileEvaluation")
+  @Label("Build File Evaluation")
+  @Category("Savant")
+  @Description("Running the build file script to configure the project, plugins and targets")
+  public static class BuildFileEvaluation extends Event {
+    @Label("Build File")
+    public String buildFile;
+
+    public BuildFileEvaluation(String buildFile) {
+      this.buildFile = buildFile;
+    }
+  }
+
+  @Name("org.savantbuild.PluginInstantiation")
+  @Label("Plugin Instantiation")
+  @Category("Savant")
+  @Description("Loading the plugin class and creating the plugin instance")
+  public static class PluginInstantiation extends Event {
+    @Label("Plugin")
+    public String plugin;
+
+    public PluginInstantiation(String plugin) {
+      this.plugin = plugin;
+    }
+  }
+
+  @Name("org.savantbuild.PluginResolution")
+  @Label("Plugin Resolution")
+  @Category("Savant")
+  @Description("Resolving the dependencies of one or more plugins and creating their class loader")
+  public static class PluginResolution extends Event {
+    @Label("Plugin")
+    public String plugin;
+
+    public PluginResolution(String plugin) {
+      this.plugin = plugin;
+    }
+  }
+
+  @Name("org.savantbuild.TargetExecution")
+  @Label("Target Execution")
+  @Category("Savant")
+  @Description("Running a target, including checking whether it is up-to-date and the build cache")
+  public static class TargetExecution extends Event {
+    @Label("Target")
+    public String target;
+
+    public TargetExecution(String target) {
+      this.target = target;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.graph.ResolvedArtifactGraph;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.plugin.Plugin;
+
+/**
+ * Listens to the events of a build. Listeners are either discovered using the {@link java.util.ServiceLoader} (by
+ * listing the class in {@code META-INF/services/org.savantbuild.runtime.BuildListener} of a JAR on the Savant
+ * classpath) or registered by the build file like this:
+ * <pre>
+ *   buildListener([targetFinished: { target -> println "Finished ${target.name}" }] as BuildListener)
+ * </pre>
+ * <p>
+ * Plugins can also register listeners using {@code runtimeConfiguration.listeners.add(listener)}.
+ * <p>
+ * All the methods do nothing by default. Plugins are resolved in the background and targets can run in parallel, which
+ * means that the methods can be called from different threads at the same time. Exceptions thrown by a listener fail the
+ * build.
+ *
+ * @author Brian Pontarelli
+ */
+public interface BuildListener {
+  /**
+   * Called once the build has finished (including builds that only print the help or the targets).
+   *
+   * @param failure The exception that failed the build or null if the build succeeded.
+   */
+  default void buildFinished(Throwable failure) {
+  }
+
+  /**
+   * Called after the build file has been parsed (or loaded from the configuration cache).
+   *
+   * @param project The project.
+   */
+  default void parseFinished(Project project) {
+  }
+
+  /**
+   * Called before the build file is parsed.
+   *
+   * @param buildFile The build file.
+   */
+  default void parseStarted(Path buildFile) {
+  }
+
+  /**
+   * Called after the dependency graph of one or more plugins has been resolved.
+   *
+   * @param plugins The plugins.
+   * @param graph   The resolved graph.
+   */
+  default void pluginDependenciesResolved(List<Artifact> plugins, ResolvedArtifactGraph graph) {
+  }
+
+  /**
+   * Called after a plugin has been instantiated. Lazy plugins are instantiated when a target first calls them.
+   *
+   * @param pluginDependency The dependency definition of the plugin.
+   * @param plugin           The plugin instance.
+   */
+  default void pluginLoaded(Artifact pluginDependency, Plugin plugin) {
+  }
+
+  /**
+   * Called when a target fails.
+   *
+   * @param target  The target.
+   * @param failure The exception thrown by the target.
+   */
+  default void targetFailed(Target target, Throwable failure) {
+  }
+
+  /**
+   * Called when a target completes successfully.
+   *
+   * @param target The target.
+   */
+  default void targetFinished(Target target) {
+  }
+
+  /**
+   * Called instead of {@link #targetStarted(Target)} when a target doesn't need to run because it is up-to-date or its
+   * outputs were restored from the build cache.
+   *
+   * @param target The target.
+   * @param reason Why the target was skipped (i.e. up-to-date or restored from the build cache).
+   */
+  default void targetSkipped(Target target, String reason) {
+  }
+
+  /**
+   * Called before a target runs.
+   *
+   * @param target The target.
+   */
+  default void targetStarted(Target target) {
+  }
+}
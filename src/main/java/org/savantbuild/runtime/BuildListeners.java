@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.graph.ResolvedArtifactGraph;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.plugin.Plugin;
+
+/**
+ * Dispatches the events of a build to the registered {@link BuildListener}s. The listeners are stored in an array that
+ * is copied when a listener is added, which means that dispatching an event is a loop over the array. When there aren't
+ * any listeners, dispatching an event doesn't allocate anything.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildListeners {
+  private volatile BuildListener[] listeners = new BuildListener[0];
+
+  /**
+   * Registers a listener.
+   *
+   * @param listener The listener.
+   */
+  public synchronized void add(BuildListener listener) {
+    BuildListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+    copy[listeners.length] = listener;
+    listeners = copy;
+  }
+
+  public void buildFinished(Throwable failure) {
+    for (BuildListener listener : listeners) {
+      listener.buildFinished(failure);
+    }
+  }
+
+  /**
+   * @return True if there aren't any listeners.
+   */
+  public boolean isEmpty() {
+    return listeners.length == 0;
+  }
+
+  /**
+   * Registers the listeners that are listed in {@code META-INF/services/org.savantbuild.runtime.BuildListener} files
+   * of the given class loader.
+   *
+   * @param classLoader The class loader.
+   * @throws BuildRunException If a listener can't be loaded.
+   */
+  public void load(ClassLoader classLoader) throws BuildRunException {
+    try {
+      for (BuildListener listener : ServiceLoader.load(BuildListener.class, classLoader)) {
+        add(listener);
+      }
+    } catch (ServiceConfigurationError e) {
+      throw new BuildRunException("Unable to load a build listener. " + e.getMessage());
+    }
+  }
+
+  public void parseFinished(Project project) {
+    for (BuildListener listener : listeners) {
+      listener.parseFinished(project);
+    }
+  }
+
+  public void parseStarted(Path buildFile) {
+    for (BuildListener listener : listeners) {
+      listener.parseStarted(buildFile);
+    }
+  }
+
+  public void pluginDependenciesResolved(List<Artifact> plugins, ResolvedArtifactGraph graph) {
+    for (BuildListener listener : listeners) {
+      listener.pluginDependenciesResolved(plugins, graph);
+    }
+  }
+
+  public void pluginLoaded(Artifact pluginDependency, Plugin plugin) {
+    for (BuildListener listener : listeners) {
+      listener.pluginLoaded(pluginDependency, plugin);
+    }
+  }
+
+  public void targetFailed(Target target, Throwable failure) {
+    for (BuildListener listener : listeners) {
+      listener.targetFailed(target, failure);
+    }
+  }
+
+  public void targetFinished(Target target) {
+    for (BuildListener listener : listeners) {
+      listener.targetFinished(target);
+    }
+  }
+
+  public void targetSkipped(Target target, String reason) {
+    for (BuildListener listener : listeners) {
+      listener.targetSkipped(target, reason);
+    }
+  }
+
+  public void targetStarted(Target target) {
+    for (BuildListener listener : listeners) {
+      listener.targetStarted(target);
+    }
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.savantbuild.output.Output;
+
+import groovy.json.JsonOutput;
+import jdk.jfr.Event;
+
+/**
+ * Records how long each phase of a build takes (compiling and evaluating the build file, resolving and instantiating
+ * each plugin, resolving dependency graphs, running each target, etc.) and which thread it ran on. A span is started
+ * with {@link #start(String, String)} and recorded when it is closed, which is done using a try-with-resources block
+ * like this:
+ * <pre>
+ *   try (BuildTimings.Timer ignore = runtimeConfiguration.timings.start("phase", "Evaluate build file")) {
+ *     ...
+ *   }
+ * </pre>
+ * <p>
+ * Recording a span is only a couple of calls to {@link System#nanoTime()}, so the spans are always recorded. The
+ * {@code --timings} switch prints the summary at the end of the build and writes the spans to
+ * {@code build/timings.json}. The {@code --trace} switch writes the spans as a timeline in the trace event format (see
+ * {@link #writeTrace(Path)}), which shows the targets and plugin resolutions that run concurrently.
+ * <p>
+ * Phases that have a Java Flight Recorder event also begin and commit the event with the span.
+ * <p>
+ * This class is thread safe since plugins are resolved in the background and targets can run in parallel.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildTimings {
+  private final long origin = System.nanoTime();
+
+  private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @return The nanoseconds since the build started.
+   */
+  public long elapsed() {
+    return System.nanoTime() - origin;
+  }
+
+  /**
+   * Prints the spans to the output, slowest first. Spans can contain other spans (the build file evaluation contains
+   * the plugins that are loaded eagerly for example), so the durations don't add up to the total.
+   *
+   * @param output The output.
+   */
+  public void printSummary(Output output) {
+    List<Span> sorted = new ArrayList<>(spans);
+    sorted.sort(Comparator.comparingLong(Span::duration).reversed());
+
+    output.infoln("Build timings (slowest first):");
+    output.infoln("");
+    for (Span span : sorted) {
+      Usage usage = span.usage();
+      if (usage == null) {
+        output.infoln("  %10.1f ms  %-7s %s", span.duration() / 1_000_000.0, span.category(), span.name());
+      } else {
+        output.infoln("  %10.1f ms  %-7s %s (cpu %.1f ms, allocated %.1f MB, gc %d ms, helper threads %d)", span.duration() / 1_000_000.0,
+            span.category(), span.name(), usage.cpuNanos() / 1_000_000.0, usage.allocatedBytes() / (1024.0 * 1024.0), usage.gcMillis(), usage.helperThreads());
+      }
+    }
+
+    output.infoln("  %10.1f ms  total", elapsed() / 1_000_000.0);
+    output.infoln("");
+  }
+
+  /**
+   * @return The recorded spans ordered by their start time.
+   */
+  public List<Span> spans() {
+    List<Span> sorted = new ArrayList<>(spans);
+    sorted.sort(Comparator.comparingLong(Span::start));
+    return sorted;
+  }
+
+  /**
+   * Starts a span. The span is recorded when the returned timer is closed.
+   *
+   * @param category The category of the span (i.e. phase, plugin, dependency or target).
+   * @param name     The name of the span.
+   * @return The timer.
+   */
+  public Timer start(String category, String name) {
+    return start(category, name, null);
+  }
+
+  /**
+   * Starts a span along with a JFR event (see {@link BuildEvents}). The event is committed when the returned timer is
+   * closed if JFR is recording it.
+   *
+   * @param category The category of the span (i.e. phase, plugin, dependency or target).
+   * @param name     The name of the span.
+   * @param event    The JFR event or null.
+   * @return The timer.
+   */
+  public Timer start(String category, String name, Event event) {
+    if (event != null) {
+      event.begin();
+    }
+
+    Thread thread = Thread.currentThread();
+    return new Timer(category, name, thread.getName(), thread.getId(), elapsed(), event);
+  }
+
+  /**
+   * Writes the spans to the given file as JSON so that they can be tracked by CI. All times are in microseconds and the
+   * start times are relative to the start of the build.
+   *
+   * @param file The file.
+   * @throws IOException If the file can't be written.
+   */
+  public void write(Path file) throws IOException {
+    List<Map<String, Object>> values = new ArrayList<>();
+    for (Span span : spans()) {
+      Map<String, Object> value = new LinkedHashMap<>();
+      value.put("category", span.category());
+      value.put("name", span.name());
+      value.put("thread", span.thread());
+      value.put("threadId", span.threadId());
+      value.put("startMicros", span.start() / 1_000);
+      value.put("durationMicros", span.duration() / 1_000);
+      if (span.usage() != null) {
+        value.put("cpuMicros", span.usage().cpuNanos() / 1_000);
+        value.put("allocatedBytes", span.usage().allocatedBytes());
+        value.put("gcMillis", span.usage().gcMillis());
+        value.put("helperThreads", span.usage().helperThreads());
+      }
+
+      values.add(value);
+    }
+
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("totalMicros", elapsed() / 1_000);
+    json.put("spans", values);
+
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Files.writeString(file, JsonOutput.prettyPrint(JsonOutput.toJson(json)));
+  }
+
+  /**
+   * Writes the spans to the given file in the trace event format that Perfetto (https://ui.perfetto.dev) and
+   * {@code chrome://tracing} display as a timeline. Each span is a complete event (a begin and end in a single event)
+   * on the track of the thread it ran on, which shows the targets that ran in parallel and the critical path of the
+   * build.
+   *
+   * @param file The file.
+   * @throws IOException If the file can't be written.
+   */
+  public void writeTrace(Path file) throws IOException {
+    List<Map<String, Object>> events = new ArrayList<>();
+    events.add(metadata("process_name", 0, "savant"));
+
+    Map<Long, String> threads = new TreeMap<>();
+    for (Span span : spans()) {
+      threads.putIfAbsent(span.threadId(), span.thread());
+
+      Map<String, Object> event = new LinkedHashMap<>();
+      event.put("name", span.name());
+      event.put("cat", span.category());
+      event.put("ph", "X");
+      event.put("ts", span.start() / 1_000.0);
+      event.put("dur", span.duration() / 1_000.0);
+      event.put("pid", 1);
+      event.put("tid", span.threadId());
+      if (span.usage() != null) {
+        event.put("args", Map.of("cpuMillis", span.usage().cpuNanos() / 1_000_000.0, "allocatedBytes", span.usage().allocatedBytes(),
+            "gcMillis", span.usage().gcMillis(), "helperThreads", span.usage().helperThreads()));
+      }
+
+      events.add(event);
+    }
+
+    threads.forEach((id, name) -> events.add(metadata("thread_name", id, name)));
+
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceEvents", events);
+    json.put("displayTimeUnit", "ms");
+
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Files.writeString(file, JsonOutput.toJson(json));
+  }
+
+  private Map<String, Object> metadata(String name, long threadId, String value) {
+    Map<String, Object> event = new LinkedHashMap<>();
+    event.put("name", name);
+    event.put("ph", "M");
+    event.put("pid", 1);
+    event.put("tid", threadId);
+    event.put("args", Map.of("name", value));
+    return event;
+  }
+
+  /**
+   * A recorded span.
+   *
+   * @param category The category (i.e. phase, plugin, dependency or target).
+   * @param name     The name.
+   * @param thread   The name of the thread that the span ran on.
+   * @param threadId The id of the thread that the span ran on.
+   * @param start    The start time in nanoseconds since the build started.
+   * @param duration The duration in nanoseconds.
+   * @param usage    The resources used by a target or null if they weren't measured.
+   */
+  public record Span(String category, String name, String thread, long threadId, long start, long duration, Usage usage) {
+  }
+
+  /**
+   * The resources used by a target (see {@link TargetUsage}).
+   *
+   * @param cpuNanos       The CPU time of the target thread and its helper threads in nanoseconds.
+   * @param allocatedBytes The bytes allocated by the target thread and its helper threads or -1 if the JVM can't
+   *                       measure them.
+   * @param gcMillis       The time the garbage collectors spent while the target was running in milliseconds.
+   * @param helperThreads  The number of helper threads that the target started.
+   */
+  public record Usage(long cpuNanos, long allocatedBytes, long gcMillis, int helperThreads) {
+  }
+
+  /**
+   * A span that has been started and that is recorded when it is closed.
+   */
+  public class Timer implements AutoCloseable {
+    private final String category;
+
+    private final Event event;
+
+    private final String name;
+
+    private final long start;
+
+    private final String thread;
+
+    private final long threadId;
+
+    private Usage usage;
+
+    private Timer(String category, String name, String thread, long threadId, long start, Event event) {
+      this.category = category;
+      this.event = event;
+      this.name = name;
+      this.thread = thread;
+      this.threadId = threadId;
+      this.start = start;
+    }
+
+    /**
+     * Sets the resources used by the target of this span.
+     *
+     * @param usage The usage.
+     */
+    public void usage(Usage usage) {
+      this.usage = usage;
+    }
+
+    @Override
+    public void close() {
+      spans.add(new Span(category, name, thread, threadId, start, elapsed() - start, usage));
+      if (event != null && event.shouldCommit()) {
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.plugin.PluginClassLoader;
+
+/**
+ * The state that the {@link BuildDaemon} keeps between builds so that it doesn't need to be recreated for every
+ * build. This contains the compiled build file class and the class loaders of the plugins.
+ * <p>
+ * The compiled build file is keyed by the path and the contents of the build file. The plugin class loaders are
+ * validated using the size and last modified time of the JAR files on their classpath, which handles integration
+ * builds of plugins that are republished with the same version. Everything is discarded if the global configuration
+ * file changes.
+ * <p>
+ * The class loader of a plugin can be the child of a class loader that is shared with the other plugins of the build
+ * file. Discarding a plugin only closes its own class loader and the shared parent is closed once none of the cached
+ * plugins use it anymore.
+ *
+ * @author Brian Pontarelli
+ */
+public class DaemonCaches {
+  private final Map<String, PluginEntry> plugins = new HashMap<>();
+
+  private Class<?> buildFileClass;
+
+  private String buildFileKey;
+
+  private String configurationStamp;
+
+  /**
+   * Returns the compiled build file class if the build file hasn't changed since it was compiled.
+   *
+   * @param key The key of the build file (path and contents hash).
+   * @return The class or null.
+   */
+  public synchronized Class<?> getBuildFileClass(String key) {
+    return key.equals(buildFileKey) ? buildFileClass : null;
+  }
+
+  /**
+   * Returns the cached plugin class loader if none of the JAR files of the plugin changed.
+   *
+   * @param artifact The plugin artifact.
+   * @return The entry or null.
+   */
+  public synchronized PluginEntry getPlugin(Artifact artifact) {
+    PluginEntry entry = plugins.get(artifact.toString());
+    if (entry != null && !entry.stamps.equals(stamps(entry.classpath))) {
+      plugins.remove(artifact.toString());
+      discard(entry);
+      return null;
+    }
+
+    return entry;
+  }
+
+  /**
+   * Discards everything if the global configuration file changed since the last build.
+   *
+   * @param configFile The global configuration file.
+   */
+  public synchronized void invalidateIfChanged(Path configFile) {
+    String stamp = stamp(configFile);
+    if (configurationStamp != null && !configurationStamp.equals(stamp)) {
+      buildFileClass = null;
+      buildFileKey = null;
+      List<PluginEntry> entries = new ArrayList<>(plugins.values());
+      plugins.clear();
+      entries.forEach(this::discard);
+    }
+
+    configurationStamp = stamp;
+  }
+
+  public synchronized void putBuildFileClass(String key, Class<?> buildFileClass) {
+    this.buildFileKey = key;
+    this.buildFileClass = buildFileClass;
+  }
+
+  public synchronized void putPlugin(Artifact artifact, URLClassLoader classLoader, String className, List<Path> classpath) {
+    PluginEntry old = plugins.put(artifact.toString(), new PluginEntry(classLoader, className, classpath, stamps(classpath)));
+    if (old != null && old.classLoader != classLoader) {
+      discard(old);
+    }
+  }
+
+  private static void close(URLClassLoader classLoader) {
+    try {
+      classLoader.close();
+    } catch (IOException e) {
+      // Ignore since the class loader is discarded
+    }
+  }
+
+  private void discard(PluginEntry entry) {
+    close(entry.classLoader);
+
+    ClassLoader parent = entry.classLoader.getParent();
+    if (parent instanceof PluginClassLoader shared && plugins.values().stream().noneMatch((other) -> other.classLoader.getParent() == shared)) {
+      close(shared);
+    }
+  }
+
+  private static String stamp(Path file) {
+    try {
+      return Files.isRegularFile(file) ? Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis() : "missing";
+    } catch (IOException e) {
+      return "error";
+    }
+  }
+
+  private static List<String> stamps(List<Path> classpath) {
+    List<String> stamps = new ArrayList<>(classpath.size());
+    for (Path path : classpath) {
+      stamps.add(stamp(path));
+    }
+
+    return stamps;
+  }
+
+  /**
+   * A cached plugin class loader.
+   */
+  public static class PluginEntry {
+    public final URLClassLoader classLoader;
+
+    public final String className;
+
+    public final List<Path> classpath;
+
+    public final List<String> stamps;
+
+    public PluginEntry(URLClassLoader classLoader, String className, List<Path> classpath, List<String> stamps) {
+      this.classLoader = classLoader;
+      this.className = className;
+      this.classpath = classpath;
+      this.stamps = stamps;
+    }
+  }
+}
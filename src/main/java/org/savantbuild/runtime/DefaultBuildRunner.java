@@ -68,17 +68,33 @@ public class DefaultBuildRunner implements BuildRunner {
       return;
     }
 
-    Project project = buildFileParser.parse(buildFile, runtimeConfiguration);
+    BuildListeners listeners = runtimeConfiguration.listeners;
+    Throwable failure = null;
+    try {
+      // These only inspect the targets, so they don't need to evaluate the build file if its model is cached
+      boolean inspectOnly = runtimeConfiguration.help || runtimeConfiguration.listTargets || runtimeConfiguration.printPlan;
+      listeners.parseStarted(buildFile);
+      Project project = inspectOnly ? buildFileParser.parseModel(buildFile, runtimeConfiguration) : buildFileParser.parse(buildFile, runtimeConfiguration);
+      listeners.parseFinished(project);
 
-    if (runtimeConfiguration.help) {
-      printHelp(project);
-      return;
-    } else if (runtimeConfiguration.listTargets) {
-      printTargets(project);
-      return;
-    }
+      if (runtimeConfiguration.help) {
+        printHelp(project);
+        return;
+      } else if (runtimeConfiguration.listTargets) {
+        printTargets(project);
+        return;
+      } else if (runtimeConfiguration.printPlan) {
+        ExecutionPlan.compile(project, runtimeConfiguration.targets).print(output);
+        return;
+      }
 
-    projectRunner.run(project, runtimeConfiguration.targets);
+      projectRunner.run(project, runtimeConfiguration.targets);
+    } catch (RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      listeners.buildFinished(failure);
+    }
   }
 
   private void printHelp(Project project) {
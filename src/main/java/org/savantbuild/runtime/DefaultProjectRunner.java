@@ -15,8 +15,11 @@
  */
 package org.savantbuild.runtime;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.savantbuild.dep.LicenseException;
 import org.savantbuild.dep.PublishException;
@@ -30,22 +33,47 @@ import org.savantbuild.domain.VersionException;
 import org.savantbuild.output.Output;
 import org.savantbuild.security.MD5Exception;
 import org.savantbuild.util.CyclicException;
+import org.savantbuild.util.SavantPaths;
 
 /**
  * Default project object runner. Using the {@link Project} object, this executes build targets of the project.
+ * <p>
+ * The requested targets are first compiled into an {@link ExecutionPlan}, which validates the targets and orders them
+ * once before anything runs. If the {@link RuntimeConfiguration#jobs} is greater than 1, the targets of the plan are
+ * executed using a work-stealing pool of that size. Targets are only started once all of their dependencies have
+ * completed, which means that independent branches of the target graph (like {@code doc} and {@code bundle} that both
+ * depend on {@code jar}) run concurrently.
+ * <p>
+ * Targets that declare their inputs are skipped if their inputs and outputs haven't changed since they last ran
+ * successfully (see {@link TargetFingerprints}). If the build cache is enabled, targets that also declare their outputs
+ * restore them from the cache when it has an entry for their inputs (see {@link TargetCache}).
+ * <p>
+ * When the timings of the build are reported, the CPU time, allocated bytes and GC time of each target are measured
+ * along with its wall time (see {@link TargetUsage}).
  *
  * @author Brian Pontarelli
  */
 public class DefaultProjectRunner implements ProjectRunner {
   private final Output output;
 
+  private final RuntimeConfiguration runtimeConfiguration;
+
   public DefaultProjectRunner(Output output) {
+    this(output, new RuntimeConfiguration());
+  }
+
+  public DefaultProjectRunner(Output output, RuntimeConfiguration runtimeConfiguration) {
     this.output = output;
+    this.runtimeConfiguration = runtimeConfiguration;
   }
 
   /**
-   * Runs the targets by finding each target and then performing a graph traversal of that targets dependencies. This
-   * ensures that a target is not called twice.
+   * Runs the targets by compiling them into an {@link ExecutionPlan} and then executing the plan. This ensures that a
+   * target is not called twice.
+   * <p>
+   * The targets requested by the user are always handled in order. When running in parallel, all the targets needed
+   * by a requested target must complete before the next requested target (and its dependencies) are started. This
+   * ensures that invocations like {@code sb clean int} never run {@code clean} at the same time as {@code compile}.
    *
    * @param project The project.
    * @param targets The targets to run.
@@ -68,32 +96,175 @@ public class DefaultProjectRunner implements ProjectRunner {
   public void run(Project project, Iterable<String> targets) throws ArtifactMetaDataMissingException, ArtifactMissingException,
       BuildRunException, BuildFailureException, CompatibilityException, CyclicException, LicenseException, MD5Exception,
       ProcessFailureException, PublishException, VersionException {
-    Set<String> calledTargets = new HashSet<>();
-    targets.forEach((targetName) -> {
-      Target target = project.targets.get(targetName);
-      if (target == null) {
-        throw new BuildRunException("Invalid target [" + targetName + "]");
+    ExecutionPlan plan = ExecutionPlan.compile(project, targets);
+    TargetFingerprints fingerprints = project.directory != null ? new TargetFingerprints(project, runtimeConfiguration.switches) : null;
+    TargetCache cache = null;
+    if (runtimeConfiguration.buildCache && fingerprints != null && project.buildFile != null) {
+      BuildCache buildCache = new LocalBuildCache(SavantPaths.get().cacheDir().resolve("build-cache"));
+      if (project.buildCache != null) {
+        buildCache = new HTTPBuildCache(output, project.buildCache, buildCache);
+      }
+
+      cache = new TargetCache(project, runtimeConfiguration.switches, fingerprints, buildCache);
+      OutputCapture.install();
+    }
+
+    boolean measureUsage = (runtimeConfiguration.printTimings || runtimeConfiguration.traceFile != null) && TargetUsage.supported();
+    RunContext context = new RunContext(fingerprints, cache, measureUsage);
+    try {
+      if (runtimeConfiguration.jobs > 1) {
+        runParallel(plan, context);
+        return;
+      }
+
+      for (Target target : plan.targets) {
+        runTarget(target, context);
+      }
+    } finally {
+      if (cache != null) {
+        OutputCapture.uninstall();
+      }
+    }
+  }
+
+  private void runParallel(ExecutionPlan plan, RunContext context) {
+    ExecutorService executor = Executors.newWorkStealingPool(runtimeConfiguration.jobs);
+    try {
+      int[] remainingDependencies = new int[plan.size()];
+      for (int i = 0; i < plan.size(); i++) {
+        remainingDependencies[i] = plan.dependencies[i].length;
+      }
+
+      int stageStart = 0;
+      for (int stageEnd : plan.stageEnds) {
+        runStage(plan, stageStart, stageEnd, remainingDependencies, context, executor);
+        stageStart = stageEnd;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs the targets of a single stage of the plan on the executor. A target is submitted as soon as all of its
+   * dependencies have completed. If a target fails, no new targets are started, the targets that are already running
+   * are allowed to finish and then the first failure is rethrown.
+   */
+  private void runStage(ExecutionPlan plan, int stageStart, int stageEnd, int[] remainingDependencies,
+                        RunContext context, ExecutorService executor) {
+    // Failures are captured by the task rather than through the Future, because the ForkJoinPool re-creates the
+    // exception when it is rethrown from the Future and that loses the exception message
+    CompletionService<TargetResult> completionService = new ExecutorCompletionService<>(executor);
+    int running = 0;
+    for (int i = stageStart; i < stageEnd; i++) {
+      if (remainingDependencies[i] == 0) {
+        int index = i;
+        completionService.submit(() -> runTargetSafely(plan.targets[index], index, context));
+        running++;
       }
+    }
 
-      // Traverse the target dependency graph if the target has dependencies (is in the graph)
-      if (project.targetGraph.contains(target)) {
-        project.targetGraph.traverseUp(target, (origin, destination, edge, depth) -> {
-          if (calledTargets.contains(destination.name)) {
-            return;
+    Throwable failure = null;
+    while (running > 0) {
+      TargetResult result;
+      try {
+        result = completionService.take().get();
+        running--;
+      } catch (ExecutionException e) {
+        // This doesn't happen since runTargetSafely catches everything
+        throw new BuildRunException("Unable to determine the result of a target");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BuildRunException("The build was interrupted while waiting for targets to complete");
+      }
+
+      if (result.failure != null) {
+        failure = failure == null ? result.failure : failure;
+        continue;
+      }
+
+      if (failure != null) {
+        continue;
+      }
+
+      for (int dependent : plan.dependents[result.index]) {
+        if (--remainingDependencies[dependent] == 0 && dependent < stageEnd) {
+          completionService.submit(() -> runTargetSafely(plan.targets[dependent], dependent, context));
+          running++;
+        }
+      }
+    }
+
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new BuildFailureException("Target failed with an unexpected exception", failure);
+    }
+  }
+
+  private TargetResult runTargetSafely(Target target, int index, RunContext context) {
+    try {
+      runTarget(target, context);
+      return new TargetResult(index, null);
+    } catch (Throwable t) {
+      return new TargetResult(index, t);
+    }
+  }
+
+  private void runTarget(Target target, RunContext context) {
+    BuildListeners listeners = runtimeConfiguration.listeners;
+    try (BuildTimings.Timer timer = runtimeConfiguration.timings.start("target", target.name, new BuildEvents.TargetExecution(target.name))) {
+      TargetFingerprints fingerprints = context.fingerprints;
+      boolean checkable = fingerprints != null && TargetFingerprints.supports(target);
+      if (checkable && fingerprints.isUpToDate(target)) {
+        output.infoln(117, ":[%s]: up-to-date", target.name);
+        listeners.targetSkipped(target, "up-to-date");
+        return;
+      }
+
+      // The usage is only measured when it is reported since it runs the target on a thread of its own
+      TargetUsage usage = context.measureUsage ? new TargetUsage(target.name) : null;
+      Runnable invocation = usage != null ? () -> usage.run(target.invocation) : target.invocation;
+
+      TargetCache cache = context.cache;
+      String key = cache != null && TargetCache.supports(target) ? cache.key(target) : null;
+      output.infoln(117, ":[%s]:", target.name);
+      if (key != null && cache.restore(target, key)) {
+        output.infoln("Restored the outputs of [%s] from the build cache", target.name);
+        listeners.targetSkipped(target, "restored from the build cache");
+      } else {
+        listeners.targetStarted(target);
+        try {
+          if (key != null) {
+            cache.store(target, key, OutputCapture.capture(invocation));
+          } else {
+            invocation.run();
           }
+        } catch (RuntimeException | Error e) {
+          listeners.targetFailed(target, e);
+          throw e;
+        }
+
+        if (usage != null) {
+          timer.usage(usage.usage());
+        }
 
-          runTarget(destination, calledTargets);
-        });
+        listeners.targetFinished(target);
       }
 
-      runTarget(target, calledTargets);
-    });
+      if (checkable) {
+        fingerprints.record(target);
+      }
+
+      output.infoln("");
+    }
+  }
+
+  private record RunContext(TargetFingerprints fingerprints, TargetCache cache, boolean measureUsage) {
   }
 
-  private void runTarget(Target target, Set<String> calledTargets) {
-    output.infoln(117, ":[%s]:", target.name);
-    target.invocation.run();
-    calledTargets.add(target.name);
-    output.infoln("");
+  private record TargetResult(int index, Throwable failure) {
   }
 }
@@ -15,6 +15,8 @@
  */
 package org.savantbuild.runtime;
 
+import java.nio.file.Paths;
+
 import static org.savantbuild.runtime.RuntimeConfiguration.DEBUG_SWITCH;
 
 /**
@@ -33,6 +35,12 @@ public class DefaultRuntimeConfigurationParser implements RuntimeConfigurationPa
    *   --version = Displays the version
    *   --help = Displays the help message
    *   --listTargets = Lists the build targets
+   *   --jobs=N = Runs up to N independent targets concurrently (--jobs alone uses the number of processors)
+   *   --plan = Prints the execution plan for the targets without running them
+   *   --buildCache = Stores and restores the outputs of targets using the build cache
+   *   --timings = Prints the timings of the build phases, plugins and targets and writes them to build/timings.json
+   *   --updateLock = Writes the reduced dependency graph of the project to savant.lock
+   *   --trace[=path] = Writes a timeline of the build that Perfetto can display to the path (build/trace.json by default)
    * </pre>
    * <p>
    * If any other argument starts with {@code --} then it is considered a switch. Switches can optionally have values
@@ -63,6 +71,22 @@ public class DefaultRuntimeConfigurationParser implements RuntimeConfigurationPa
         configuration.help = true;
       } else if (argument.equals("--listTargets")) {
         configuration.listTargets = true;
+      } else if (argument.equals("--jobs")) {
+        configuration.jobs = Runtime.getRuntime().availableProcessors();
+      } else if (argument.startsWith("--jobs=")) {
+        configuration.jobs = parseJobs(argument.substring("--jobs=".length()));
+      } else if (argument.equals("--plan")) {
+        configuration.printPlan = true;
+      } else if (argument.equals("--buildCache")) {
+        configuration.buildCache = true;
+      } else if (argument.equals("--timings")) {
+        configuration.printTimings = true;
+      } else if (argument.equals("--updateLock")) {
+        configuration.updateLock = true;
+      } else if (argument.equals("--trace")) {
+        configuration.traceFile = Paths.get("build/trace.json");
+      } else if (argument.startsWith("--trace=")) {
+        configuration.traceFile = Paths.get(argument.substring("--trace=".length()));
       } else if (argument.equals("--version")) {
         configuration.printVersion = true;
       } else if (argument.startsWith("--")) {
@@ -79,4 +103,20 @@ public class DefaultRuntimeConfigurationParser implements RuntimeConfigurationPa
 
     return configuration;
   }
+
+  private int parseJobs(String value) {
+    int jobs;
+    try {
+      jobs = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      jobs = 0;
+    }
+
+    if (jobs < 1) {
+      throw new BuildRunException("Invalid value [" + value + "] for the --jobs switch. It must be a number greater than 0 like this:\n\n" +
+          "  sb --jobs=4 clean int");
+    }
+
+    return jobs;
+  }
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.ArtifactID;
+import org.savantbuild.dep.domain.Dependencies;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.domain.License;
+import org.savantbuild.dep.graph.DependencyEdgeValue;
+import org.savantbuild.dep.graph.DependencyGraph;
+import org.savantbuild.dep.graph.DependencyGraph.Dependency;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Version;
+import org.savantbuild.output.Output;
+import org.savantbuild.util.Graph.Edge;
+import org.savantbuild.util.HashGraph;
+
+/**
+ * Caches the dependency graph of a project along with the direct dependencies that it was built from so that the graph
+ * can be rebuilt incrementally when the dependencies change. Building the graph reads the metadata of every transitive
+ * dependency, which is the slow part of resolving the dependencies of a large project.
+ * <p>
+ * When the graph is rebuilt, the subtrees of the direct dependencies that didn't change are copied from the cached
+ * graph and only the dependencies that were added or changed are expanded using the dependency service. Removed
+ * dependencies are dropped without any resolution at all. The graph is then reduced as usual, which checks the
+ * compatibility of the entire graph (this happens in memory and is fast compared to reading the metadata).
+ * <p>
+ * The cached subtrees can't be reused if the project or the semantic version mappings of the workflow changed, or if
+ * any of the dependencies have exclusions, non-semantic versions or skip the compatibility check (since these change how
+ * the shared parts of the graph are expanded). Integration versions are republished under the same version, so their
+ * metadata can change at any time and the graph is never reused if either the cached graph or the dependencies of the
+ * project contain one. In these cases, the entire graph is rebuilt.
+ * <p>
+ * The graph cache is only used when the lock file is updated. Other builds leave the graph to the dependency plugins,
+ * so builds that never resolve the dependencies of the project (i.e. {@code sb clean}) don't build it.
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyGraphCache {
+  public static final String VERSION = "1";
+
+  private final Path directory;
+
+  private final Output output;
+
+  public DependencyGraphCache(Path directory, Output output) {
+    this.directory = directory;
+    this.output = output;
+  }
+
+  private static String format(ArtifactID id) {
+    return id.group + ":" + id.project + ":" + id.name + ":" + id.type;
+  }
+
+  private static String hash(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static boolean integration(Version version) {
+    return version != null && version.toString().contains("{integration}");
+  }
+
+  private static boolean reusable(Dependencies dependencies) {
+    for (DependencyGroup group : dependencies.groups.values()) {
+      for (Artifact dependency : group.dependencies) {
+        if (integration(dependency.version) || dependency.nonSemanticVersion != null || dependency.skipCompatibilityCheck ||
+            (dependency.exclusions != null && !dependency.exclusions.isEmpty())) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Builds the dependency graph of the project, reusing the subtrees of the cached graph for the dependencies that
+   * didn't change, and caches the new graph.
+   *
+   * @param project The project.
+   * @return The dependency graph.
+   */
+  public DependencyGraph build(Project project) {
+    Path file = directory.resolve(hash(project.directory.toAbsolutePath().toString()) + ".graph");
+    String key = key(project);
+    Set<String> signatures = signatures(project.dependencies);
+    Cached cached = reusable(project.dependencies) ? load(file, key) : null;
+
+    DependencyGraph graph;
+    if (cached == null) {
+      graph = project.dependencyService.buildGraph(project.toArtifact(), project.dependencies, project.workflow);
+    } else {
+      graph = rebuild(project, cached, signatures);
+    }
+
+    store(file, key, signatures, graph);
+    return graph;
+  }
+
+  private void copy(DependencyGraph to, Dependency origin, Edge<Dependency, DependencyEdgeValue> edge, Set<String> copied) {
+    DependencyEdgeValue value = edge.getValue();
+    String edgeKey = origin.id + " " + value.dependentVersion + " " + edge.getDestination().id + " " + value.dependencyVersion + " " + value.type;
+    if (copied.add(edgeKey)) {
+      to.addEdge(origin, edge.getDestination(), value);
+    }
+  }
+
+  private String key(Project project) {
+    StringBuilder build = new StringBuilder(VERSION).append('\n');
+    build.append(format(project.toArtifact().id)).append(':').append(project.version).append('\n');
+    if (project.workflow != null) {
+      new TreeMap<>(project.workflow.mappings).forEach((from, to) -> build.append("mapping ").append(from).append('=').append(to).append('\n'));
+      new TreeMap<>(project.workflow.rangeMappings).forEach((from, to) -> build.append("range ").append(from).append('=').append(to).append('\n'));
+    }
+
+    return hash(build.toString());
+  }
+
+  private Cached load(Path file, String key) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try {
+      List<String> lines = Files.readAllLines(file);
+      if (lines.size() < 2 || !lines.get(0).equals("version " + VERSION) || !lines.get(1).equals("key " + key)) {
+        return null;
+      }
+
+      Set<String> signatures = new HashSet<>();
+      List<Dependency> nodes = new ArrayList<>();
+      HashGraph<Dependency, DependencyEdgeValue> graph = new HashGraph<>();
+      for (String line : lines) {
+        String[] parts = line.split(" ");
+        if (parts[0].equals("dependency")) {
+          signatures.add(line.substring("dependency ".length()));
+        } else if (parts[0].equals("node")) {
+          String[] coordinates = parts[1].split(":");
+          nodes.add(new Dependency(new ArtifactID(coordinates[0], coordinates[1], coordinates[2], coordinates[3])));
+        } else if (parts[0].equals("edge")) {
+          License[] licenses = new License[parts.length - 6];
+          for (int i = 6; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            String identifier = equals > 0 ? parts[i].substring(0, equals) : parts[i];
+            String text = equals > 0 ? new String(Base64.getDecoder().decode(parts[i].substring(equals + 1)), StandardCharsets.UTF_8) : null;
+            licenses[i - 6] = License.parse(identifier, text);
+          }
+
+          DependencyEdgeValue value = new DependencyEdgeValue(new Version(parts[3]), new Version(parts[4]), parts[5], licenses);
+          if (integration(value.dependentVersion) || integration(value.dependencyVersion)) {
+            output.debugln("The cached dependency graph [%s] contains integration versions. It will be rebuilt.", file);
+            return null;
+          }
+
+          graph.addEdge(nodes.get(Integer.parseInt(parts[1])), nodes.get(Integer.parseInt(parts[2])), value);
+        }
+      }
+
+      return nodes.isEmpty() ? null : new Cached(graph, nodes.get(0), signatures);
+    } catch (IOException | RuntimeException e) {
+      output.debugln("Unable to load the cached dependency graph [%s]. It will be rebuilt. %s", file, e.getMessage());
+      return null;
+    }
+  }
+
+  private DependencyGraph rebuild(Project project, Cached cached, Set<String> signatures) {
+    DependencyGraph graph = new DependencyGraph(project.toArtifact());
+    Dependency root = new Dependency(project.toArtifact().id);
+    Set<String> copied = new HashSet<>();
+
+    // Copy the subtrees of the dependencies that didn't change
+    List<DependencyGroup> changed = new ArrayList<>();
+    int reused = 0;
+    Queue<Edge<Dependency, DependencyEdgeValue>> queue = new ArrayDeque<>();
+    for (DependencyGroup group : project.dependencies.groups.values()) {
+      DependencyGroup changedGroup = new DependencyGroup(group.name, group.export);
+      for (Artifact dependency : group.dependencies) {
+        if (!cached.signatures.contains(signature(group, dependency))) {
+          changedGroup.dependencies.add(dependency);
+          continue;
+        }
+
+        for (Edge<Dependency, DependencyEdgeValue> edge : cached.graph.getOutboundEdges(cached.root)) {
+          if (edge.getValue().type.equals(group.name) && edge.getDestination().id.equals(dependency.id) &&
+              edge.getValue().dependencyVersion.equals(dependency.version)) {
+            copy(graph, root, edge, copied);
+            queue.add(edge);
+            reused++;
+          }
+        }
+      }
+
+      if (!changedGroup.dependencies.isEmpty()) {
+        changed.add(changedGroup);
+      }
+    }
+
+    Set<String> visited = new HashSet<>();
+    while (!queue.isEmpty()) {
+      Edge<Dependency, DependencyEdgeValue> edge = queue.poll();
+      Dependency node = edge.getDestination();
+      Version version = edge.getValue().dependencyVersion;
+      if (!visited.add(node.id + " " + version)) {
+        continue;
+      }
+
+      for (Edge<Dependency, DependencyEdgeValue> outbound : cached.graph.getOutboundEdges(node)) {
+        if (outbound.getValue().dependentVersion.equals(version)) {
+          copy(graph, node, outbound, copied);
+          queue.add(outbound);
+        }
+      }
+    }
+
+    // Expand the dependencies that were added or changed and merge them into the graph
+    if (!changed.isEmpty()) {
+      Dependencies dependencies = new Dependencies(changed.toArray(new DependencyGroup[0]));
+      DependencyGraph expanded = project.dependencyService.buildGraph(project.toArtifact(), dependencies, project.workflow);
+      for (Dependency node : expanded.values()) {
+        Dependency origin = node.id.equals(root.id) ? root : node;
+        for (Edge<Dependency, DependencyEdgeValue> edge : expanded.getOutboundEdges(node)) {
+          copy(graph, origin, edge, copied);
+        }
+      }
+    }
+
+    output.debugln("Rebuilt the dependency graph incrementally. Reused [%d] dependencies and expanded [%d] added or changed dependencies",
+        reused, changed.stream().mapToInt((group) -> group.dependencies.size()).sum());
+    return graph;
+  }
+
+  private String signature(DependencyGroup group, Artifact dependency) {
+    return group.name + " " + group.export + " " + dependency;
+  }
+
+  private Set<String> signatures(Dependencies dependencies) {
+    Set<String> signatures = new LinkedHashSet<>();
+    for (DependencyGroup group : dependencies.groups.values()) {
+      for (Artifact dependency : group.dependencies) {
+        signatures.add(signature(group, dependency));
+      }
+    }
+
+    return signatures;
+  }
+
+  private void store(Path file, String key, Set<String> signatures, DependencyGraph graph) {
+    // The root is always first so that it is index 0
+    Dependency root = new Dependency(graph.root.id);
+    List<Dependency> nodes = new ArrayList<>();
+    Map<Dependency, Integer> indexes = new HashMap<>();
+    nodes.add(root);
+    indexes.put(root, 0);
+    for (Dependency node : graph.values()) {
+      if (!indexes.containsKey(node)) {
+        indexes.put(node, nodes.size());
+        nodes.add(node);
+      }
+    }
+
+    StringBuilder build = new StringBuilder();
+    build.append("version ").append(VERSION).append('\n');
+    build.append("key ").append(key).append('\n');
+    signatures.forEach((signature) -> build.append("dependency ").append(signature).append('\n'));
+    nodes.forEach((node) -> build.append("node ").append(format(node.id)).append('\n'));
+    for (Dependency node : nodes) {
+      for (Edge<Dependency, DependencyEdgeValue> edge : graph.getOutboundEdges(node)) {
+        DependencyEdgeValue value = edge.getValue();
+        build.append("edge ").append(indexes.get(node)).append(' ').append(indexes.get(edge.getDestination())).append(' ')
+             .append(value.dependentVersion).append(' ').append(value.dependencyVersion).append(' ').append(value.type);
+        for (License license : value.licenses) {
+          build.append(' ').append(license.identifier);
+          if (license.text != null) {
+            build.append('=').append(Base64.getEncoder().encodeToString(license.text.getBytes(StandardCharsets.UTF_8)));
+          }
+        }
+
+        build.append('\n');
+      }
+    }
+
+    try {
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, "dependency-graph", ".tmp");
+      Files.writeString(temp, build.toString());
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // The cache is only an optimization, so the next build rebuilds the entire graph
+      output.debugln("Unable to cache the dependency graph in [%s]. %s", directory, e.getMessage());
+    }
+  }
+
+  private record Cached(HashGraph<Dependency, DependencyEdgeValue> graph, Dependency root, Set<String> signatures) {
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.ArtifactID;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.domain.License;
+import org.savantbuild.dep.domain.ReifiedArtifact;
+import org.savantbuild.dep.graph.ArtifactGraph;
+import org.savantbuild.dep.graph.DependencyGraph;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Version;
+import org.savantbuild.output.Output;
+import org.savantbuild.util.Graph.Edge;
+import org.savantbuild.util.SavantPaths;
+
+/**
+ * The {@code savant.lock} file of a project. The lock file contains the reduced dependency graph of the project (the
+ * {@link Project#artifactGraph}) along with a checksum of everything that the graph was built from (the project, its
+ * dependencies and the semantic version mappings of the workflow).
+ * <p>
+ * The lock file is written using the {@code --updateLock} switch. When the checksum of the lock file matches the
+ * project, the graph is loaded from the lock file, which means that the dependency plugins don't need to read the
+ * metadata of every transitive dependency to build and reduce the graph. If the project's dependencies change, the lock
+ * file is ignored (with a warning) until it is updated.
+ * <p>
+ * The lock file also contains the SHA-256 hash of the file of every locked artifact. When the graph is loaded from the
+ * lock file, the fetch workflow verifies the files against these hashes as the dependency plugins fetch them (see
+ * {@link LockVerificationProcess}).
+ * <p>
+ * Artifacts that have non-semantic versions can't be locked since the lock file only contains the semantic versions,
+ * so updating the lock file fails for projects that depend on them.
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyLock {
+  public static final String FILE_NAME = "savant.lock";
+
+  public static final String VERSION = "2";
+
+  private final Path file;
+
+  private final DependencyGraphCache graphCache;
+
+  private final Output output;
+
+  public DependencyLock(Path file, Output output) {
+    this(file, output, new DependencyGraphCache(SavantPaths.get().cacheDir().resolve("dependency-graphs"), output));
+  }
+
+  public DependencyLock(Path file, Output output, DependencyGraphCache graphCache) {
+    this.file = file;
+    this.graphCache = graphCache;
+    this.output = output;
+  }
+
+  /**
+   * Builds the checksum of everything that the dependency graph of the project is built from.
+   *
+   * @param project The project.
+   * @return The checksum.
+   */
+  public static String checksum(Project project) {
+    StringBuilder build = new StringBuilder(VERSION).append('\n');
+    build.append("project ").append(format(project.toArtifact())).append('\n');
+    for (DependencyGroup group : project.dependencies.groups.values()) {
+      build.append("group ").append(group.name).append(' ').append(group.export).append('\n');
+      for (Artifact dependency : group.dependencies) {
+        build.append("dependency ").append(dependency).append(' ').append(dependency.nonSemanticVersion)
+             .append(' ').append(dependency.skipCompatibilityCheck).append(' ').append(dependency.exclusions).append('\n');
+      }
+    }
+
+    if (project.workflow != null) {
+      new TreeMap<>(project.workflow.mappings).forEach((from, to) -> build.append("mapping ").append(from).append('=').append(to).append('\n'));
+      new TreeMap<>(project.workflow.rangeMappings).forEach((from, to) -> build.append("range ").append(from).append('=').append(to).append('\n'));
+    }
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(build.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  /**
+   * Computes the SHA-256 hash of a file.
+   *
+   * @param file The file.
+   * @return The hash as a hex string.
+   * @throws BuildRunException If the file can't be read.
+   */
+  public static String hash(Path file) throws BuildRunException {
+    try (InputStream in = Files.newInputStream(file)) {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to compute the hash of [" + file + "]. " + e.getMessage());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static String format(ReifiedArtifact artifact) {
+    ArtifactID id = artifact.id;
+    return id.group + ":" + id.project + ":" + id.name + ":" + artifact.version + ":" + id.type;
+  }
+
+  /**
+   * Sets the {@link Project#artifactGraph} from the lock file if the lock file exists and matches the project. The
+   * processes of the fetch workflow are combined into a {@link LockVerificationProcess} that verifies the hashes of the
+   * locked artifacts.
+   *
+   * @param project The project.
+   * @return True if the graph was loaded from the lock file.
+   * @throws BuildRunException If the lock file is invalid.
+   */
+  public boolean apply(Project project) throws BuildRunException {
+    if (project.dependencies == null || !Files.isRegularFile(file)) {
+      return false;
+    }
+
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file);
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to read the dependency lock file [" + file + "]. " + e.getMessage());
+    }
+
+    String checksum = checksum(project);
+    if (!lines.contains("checksum " + checksum)) {
+      output.infoln("The dependency lock file [%s] is out of date and is being ignored. Update it using the --updateLock switch.", file.getFileName());
+      return false;
+    }
+
+    Map<String, String> hashes = new HashMap<>();
+    project.artifactGraph = parse(lines, hashes);
+    if (project.workflow != null && !hashes.isEmpty()) {
+      List<Process> processes = project.workflow.fetchWorkflow.processes;
+      List<Process> verified = new ArrayList<>(processes);
+      processes.clear();
+      processes.add(new LockVerificationProcess(verified, hashes, file));
+    }
+
+    return true;
+  }
+
+  /**
+   * Builds and reduces the dependency graph of the project, sets the {@link Project#artifactGraph} and writes it to the
+   * lock file. The graph is built incrementally from the previous graph (see {@link DependencyGraphCache}), so updating
+   * the lock file after adding or changing a couple of dependencies only reads the metadata of those dependencies.
+   *
+   * @param project The project.
+   * @throws BuildRunException If the lock file can't be written or the graph contains non-semantic versions.
+   */
+  public void update(Project project) throws BuildRunException {
+    if (project.dependencies == null) {
+      output.infoln("The project doesn't have any dependencies to lock");
+      return;
+    }
+
+    DependencyGraph dependencyGraph = graphCache.build(project);
+    write(project, project.dependencyService.reduce(dependencyGraph));
+  }
+
+  /**
+   * Writes the given graph of the project to the lock file and sets it as the {@link Project#artifactGraph}. If the
+   * project has a workflow, the artifacts are fetched to record their hashes. The lock file is written to a temporary
+   * file first and moved into place, so a failure never leaves a partial lock file behind.
+   *
+   * @param project       The project.
+   * @param artifactGraph The reduced dependency graph of the project.
+   * @throws BuildRunException If the lock file can't be written or the graph contains non-semantic versions.
+   */
+  public void write(Project project, ArtifactGraph artifactGraph) throws BuildRunException {
+    // The root is always first so that it is index 0
+    List<ReifiedArtifact> artifacts = new ArrayList<>();
+    Map<ReifiedArtifact, Integer> indexes = new HashMap<>();
+    artifacts.add(artifactGraph.root);
+    indexes.put(artifactGraph.root, 0);
+    for (ReifiedArtifact artifact : artifactGraph.values()) {
+      if (artifact.nonSemanticVersion != null) {
+        throw new BuildRunException("Unable to lock the dependencies because the dependency [" + artifact + "] has the non-semantic version [" +
+            artifact.nonSemanticVersion + "]");
+      }
+
+      if (!indexes.containsKey(artifact)) {
+        indexes.put(artifact, artifacts.size());
+        artifacts.add(artifact);
+      }
+    }
+
+    StringBuilder build = new StringBuilder();
+    build.append("# Generated by Savant using the --updateLock switch. Do not edit.\n");
+    build.append("version ").append(VERSION).append('\n');
+    build.append("checksum ").append(checksum(project)).append('\n');
+    for (ReifiedArtifact artifact : artifacts) {
+      build.append("artifact ").append(format(artifact));
+      for (License license : artifact.licenses) {
+        build.append(' ').append(license.identifier);
+        if (license.text != null) {
+          build.append('=').append(Base64.getEncoder().encodeToString(license.text.getBytes(StandardCharsets.UTF_8)));
+        }
+      }
+
+      build.append('\n');
+    }
+
+    if (project.workflow != null) {
+      for (int i = 1; i < artifacts.size(); i++) {
+        build.append("hash ").append(i).append(' ').append(hash(project.workflow.fetchArtifact(artifacts.get(i)))).append('\n');
+      }
+    }
+
+    for (ReifiedArtifact artifact : artifacts) {
+      for (Edge<ReifiedArtifact, String> edge : artifactGraph.getOutboundEdges(artifact)) {
+        build.append("edge ").append(indexes.get(artifact)).append(' ').append(indexes.get(edge.getDestination())).append(' ')
+             .append(edge.getValue()).append('\n');
+      }
+    }
+
+    Path temp = null;
+    try {
+      temp = Files.createTempFile(file.toAbsolutePath().getParent(), FILE_NAME, ".tmp");
+      Files.writeString(temp, build.toString());
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      try {
+        if (temp != null) {
+          Files.deleteIfExists(temp);
+        }
+      } catch (IOException ignore) {
+        // The original failure is reported
+      }
+
+      throw new BuildRunException("Unable to write the dependency lock file [" + file + "]. " + e.getMessage());
+    }
+
+    project.artifactGraph = artifactGraph;
+    output.infoln("Locked [%d] dependencies in [%s]", artifacts.size() - 1, file.getFileName());
+  }
+
+  private ArtifactGraph parse(List<String> lines, Map<String, String> hashes) {
+    List<ReifiedArtifact> artifacts = new ArrayList<>();
+    ArtifactGraph graph = null;
+    for (String line : lines) {
+      String[] parts = line.split(" ");
+      if (parts[0].equals("artifact") && parts.length >= 2) {
+        String[] coordinates = parts[1].split(":");
+        if (coordinates.length != 5) {
+          throw new BuildRunException("Invalid artifact [" + parts[1] + "] in the dependency lock file [" + file + "]");
+        }
+
+        List<License> licenses = new ArrayList<>();
+        for (int i = 2; i < parts.length; i++) {
+          int equals = parts[i].indexOf('=');
+          String identifier = equals > 0 ? parts[i].substring(0, equals) : parts[i];
+          String text = equals > 0 ? new String(Base64.getDecoder().decode(parts[i].substring(equals + 1)), StandardCharsets.UTF_8) : null;
+          licenses.add(License.parse(identifier, text));
+        }
+
+        ArtifactID id = new ArtifactID(coordinates[0], coordinates[1], coordinates[2], coordinates[4]);
+        ReifiedArtifact artifact = new ReifiedArtifact(id, new Version(coordinates[3]), licenses);
+        if (graph == null) {
+          graph = new ArtifactGraph(artifact);
+        } else {
+          graph.addNode(artifact);
+        }
+
+        artifacts.add(artifact);
+      } else if (parts[0].equals("hash") && parts.length == 3) {
+        try {
+          ReifiedArtifact artifact = artifacts.get(Integer.parseInt(parts[1]));
+          String item = artifact.id.name + "-" + artifact.version + "." + artifact.id.type;
+          hashes.put(artifact.id.group + ":" + artifact.id.project + ":" + artifact.version + ":" + item, parts[2]);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+          throw new BuildRunException("Invalid hash [" + line + "] in the dependency lock file [" + file + "]");
+        }
+      } else if (parts[0].equals("edge") && parts.length == 4) {
+        try {
+          graph.addEdge(artifacts.get(Integer.parseInt(parts[1])), artifacts.get(Integer.parseInt(parts[2])), parts[3]);
+        } catch (IndexOutOfBoundsException | NullPointerException | NumberFormatException e) {
+          throw new BuildRunException("Invalid edge [" + line + "] in the dependency lock file [" + file + "]");
+        }
+      }
+    }
+
+    if (graph == null) {
+      throw new BuildRunException("The dependency lock file [" + file + "] doesn't contain the project");
+    }
+
+    return graph;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.ArtifactMetaData;
+import org.savantbuild.dep.domain.Dependencies;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.output.Output;
+
+/**
+ * Fetches the metadata and JAR files of the dependencies of a project concurrently so that they are in the cache when
+ * the dependency plugins resolve the dependencies. Resolving a dependency graph fetches one artifact at a time, which
+ * means that filling an empty cache (i.e. on a new CI container) is a long chain of sequential HTTP requests.
+ * <p>
+ * The graph is discovered breadth-first. The metadata of every artifact in a level of the graph is fetched
+ * concurrently, and the dependencies in the metadata form the next level. The JAR files are fetched concurrently in the
+ * background while the graph is discovered. The graph isn't reduced, so every version of an artifact that is in the
+ * graph is fetched.
+ * <p>
+ * Each artifact is only fetched by a single thread, so no two threads ever publish the same file to the cache. Failures
+ * are ignored (and output as debug messages) because resolving the dependencies reports them.
+ * <p>
+ * This is enabled using the {@code concurrency} attribute of the fetch workflow like this (the {@link PrefetchProcess}
+ * runs the prefetch when the dependencies are first resolved):
+ * <pre>
+ *   workflow {
+ *     fetch(concurrency: 16) {
+ *       cache()
+ *       url(url: "https://repository.savantbuild.org")
+ *     }
+ *   }
+ * </pre>
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyPrefetcher {
+  private static final ThreadLocal<Boolean> PREFETCHING = ThreadLocal.withInitial(() -> false);
+
+  private final int concurrency;
+
+  private final Output output;
+
+  private final Workflow workflow;
+
+  public DependencyPrefetcher(Workflow workflow, int concurrency, Output output) {
+    this.workflow = workflow;
+    this.concurrency = concurrency;
+    this.output = output;
+  }
+
+  private static List<Artifact> artifacts(Dependencies dependencies) {
+    List<Artifact> artifacts = new ArrayList<>();
+    if (dependencies != null) {
+      for (DependencyGroup group : dependencies.groups.values()) {
+        artifacts.addAll(group.dependencies);
+      }
+    }
+
+    return artifacts;
+  }
+
+  /**
+   * @return True if the current thread is one of the threads that prefetch the dependencies.
+   */
+  public static boolean isPrefetching() {
+    return PREFETCHING.get();
+  }
+
+  /**
+   * Fetches the metadata and JAR files of the given dependencies and their transitive dependencies.
+   *
+   * @param dependencies The dependencies.
+   * @return The number of artifacts that were fetched.
+   */
+  public int prefetch(Dependencies dependencies) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency, (runnable) -> {
+      Thread thread = new Thread(() -> {
+        PREFETCHING.set(true);
+        runnable.run();
+      }, "savant-fetch-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    AtomicInteger fetched = new AtomicInteger();
+    Queue<Future<?>> artifactFetches = new ConcurrentLinkedQueue<>();
+    Set<String> seen = new HashSet<>();
+    try {
+      List<Artifact> level = artifacts(dependencies);
+      level.removeIf((artifact) -> !seen.add(artifact.toString()));
+      while (!level.isEmpty()) {
+        List<Callable<Dependencies>> metaDataFetches = new ArrayList<>();
+        for (Artifact artifact : level) {
+          metaDataFetches.add(() -> {
+            ArtifactMetaData metaData;
+            try {
+              metaData = workflow.fetchMetaData(artifact);
+            } catch (Exception e) {
+              output.debugln("Unable to prefetch the metadata of [%s]. %s", artifact, e.getMessage());
+              return null;
+            }
+
+            artifactFetches.add(executor.submit(() -> {
+              try {
+                workflow.fetchArtifact(artifact);
+                fetched.incrementAndGet();
+              } catch (Exception e) {
+                output.debugln("Unable to prefetch [%s]. %s", artifact, e.getMessage());
+              }
+            }));
+            return metaData.dependencies;
+          });
+        }
+
+        List<Artifact> next = new ArrayList<>();
+        for (Future<Dependencies> result : executor.invokeAll(metaDataFetches)) {
+          for (Artifact artifact : artifacts(result.get())) {
+            if (seen.add(artifact.toString())) {
+              next.add(artifact);
+            }
+          }
+        }
+
+        level = next;
+      }
+
+      // The metadata fetches are done, so nothing is added to the queue anymore
+      for (Future<?> future : artifactFetches) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BuildRunException("The build was interrupted while fetching the dependencies");
+    } catch (ExecutionException e) {
+      throw new BuildRunException("Unable to fetch the dependencies. " + e.getCause().getMessage());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    output.debugln("Prefetched [%d] of [%d] dependencies using [%d] threads", fetched.get(), seen.size(), concurrency);
+    return fetched.get();
+  }
+}
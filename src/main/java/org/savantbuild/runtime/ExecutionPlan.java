@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.output.Output;
+
+/**
+ * A compiled, validated and deduplicated list of the targets that need to be executed for a set of requested targets.
+ * <p>
+ * The targets are topologically sorted so that every target comes after all of its dependencies. Each target is
+ * identified by its index in the plan, and the dependencies between targets are stored as arrays of these indexes so
+ * that the runner doesn't need to traverse the target graph or look up targets by name while the build is running.
+ * <p>
+ * The plan is also split into stages, one for each requested target. A stage contains the requested target and all of
+ * its dependencies that were not part of a previous stage. Stages are always executed in order.
+ *
+ * @author Brian Pontarelli
+ */
+public class ExecutionPlan {
+  /**
+   * For each target in the plan, the indexes of the targets in the plan that it depends on.
+   */
+  public final int[][] dependencies;
+
+  /**
+   * For each target in the plan, the indexes of the targets in the plan that depend on it.
+   */
+  public final int[][] dependents;
+
+  /**
+   * The exclusive end index of each stage. The first stage starts at 0 and every other stage starts at the end of the
+   * previous stage. Stages are empty if the requested target was already part of an earlier stage.
+   */
+  public final int[] stageEnds;
+
+  /**
+   * The targets in the order they must be executed.
+   */
+  public final Target[] targets;
+
+  private ExecutionPlan(Target[] targets, int[][] dependencies, int[] stageEnds) {
+    this.targets = targets;
+    this.dependencies = dependencies;
+    this.stageEnds = stageEnds;
+
+    int[] counts = new int[targets.length];
+    for (int[] targetDependencies : dependencies) {
+      for (int dependency : targetDependencies) {
+        counts[dependency]++;
+      }
+    }
+
+    this.dependents = new int[targets.length][];
+    for (int i = 0; i < targets.length; i++) {
+      dependents[i] = new int[counts[i]];
+      counts[i] = 0;
+    }
+
+    for (int i = 0; i < targets.length; i++) {
+      for (int dependency : dependencies[i]) {
+        dependents[dependency][counts[dependency]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Compiles the plan for the given requested targets.
+   *
+   * @param project The project that contains the targets.
+   * @param names   The names of the requested targets in the order the user requested them.
+   * @return The plan and never null.
+   * @throws BuildRunException If a requested target or a dependsOn target doesn't exist or if the targets contain a
+   *                           cycle.
+   */
+  public static ExecutionPlan compile(Project project, Iterable<String> names) throws BuildRunException {
+    Compiler compiler = new Compiler(project);
+    List<Integer> stageEnds = new ArrayList<>();
+    for (String name : names) {
+      Integer id = compiler.ids.get(name);
+      if (id == null) {
+        throw new BuildRunException("Invalid target [" + name + "]");
+      }
+
+      compiler.visit(id);
+      stageEnds.add(compiler.size);
+    }
+
+    return compiler.toPlan(stageEnds.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  /**
+   * Prints the plan to the given output.
+   *
+   * @param output The output.
+   */
+  public void print(Output output) {
+    output.infoln("Execution plan:");
+    output.infoln("");
+
+    int stageStart = 0;
+    for (int stageEnd : stageEnds) {
+      for (int i = stageStart; i < stageEnd; i++) {
+        List<String> names = new ArrayList<>();
+        for (int dependency : dependencies[i]) {
+          names.add(targets[dependency].name);
+        }
+
+        if (names.isEmpty()) {
+          output.infoln("  %d. %s", i + 1, targets[i].name);
+        } else {
+          output.infoln("  %d. %s (after %s)", i + 1, targets[i].name, String.join(", ", names));
+        }
+      }
+
+      stageStart = stageEnd;
+    }
+
+    output.infoln("");
+  }
+
+  /**
+   * @return The number of targets in the plan.
+   */
+  public int size() {
+    return targets.length;
+  }
+
+  /**
+   * Depth first post-order traversal of the target dependencies. All the targets of the project are assigned an int ID
+   * up front and the traversal uses these IDs and int arrays for the state.
+   */
+  private static class Compiler {
+    private static final int DONE = 2;
+
+    private static final int VISITING = 1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final int[] order;
+
+    private final int[] planIndexes;
+
+    private final int[] state;
+
+    private final int[][] targetDependencies;
+
+    private final Target[] targets;
+
+    private int size;
+
+    private Compiler(Project project) {
+      int count = project.targets.size();
+      this.targets = new Target[count];
+      this.targetDependencies = new int[count][];
+      this.order = new int[count];
+      this.planIndexes = new int[count];
+      this.state = new int[count];
+
+      int id = 0;
+      for (Map.Entry<String, Target> entry : project.targets.entrySet()) {
+        targets[id] = entry.getValue();
+        ids.put(entry.getKey(), id++);
+      }
+
+      for (int i = 0; i < count; i++) {
+        List<String> dependencies = targets[i].dependencies;
+        int[] dependencyIDs = new int[dependencies == null ? 0 : dependencies.size()];
+        int dependencyCount = 0;
+        for (int j = 0; j < dependencyIDs.length; j++) {
+          Integer dependencyID = ids.get(dependencies.get(j));
+          if (dependencyID == null) {
+            throw new BuildRunException("Invalid dependsOn for target [" + targets[i].name + "]. Target [" + dependencies.get(j) + "] does not exist");
+          }
+
+          // Skip duplicates like dependsOn: ["compile", "compile"]
+          boolean duplicate = false;
+          for (int k = 0; k < dependencyCount; k++) {
+            duplicate |= dependencyIDs[k] == dependencyID;
+          }
+
+          if (!duplicate) {
+            dependencyIDs[dependencyCount++] = dependencyID;
+          }
+        }
+
+        targetDependencies[i] = Arrays.copyOf(dependencyIDs, dependencyCount);
+      }
+    }
+
+    private ExecutionPlan toPlan(int[] stageEnds) {
+      Target[] planTargets = new Target[size];
+      int[][] planDependencies = new int[size][];
+      for (int i = 0; i < size; i++) {
+        int id = order[i];
+        planTargets[i] = targets[id];
+        planDependencies[i] = new int[targetDependencies[id].length];
+        for (int j = 0; j < planDependencies[i].length; j++) {
+          planDependencies[i][j] = planIndexes[targetDependencies[id][j]];
+        }
+      }
+
+      return new ExecutionPlan(planTargets, planDependencies, stageEnds);
+    }
+
+    private void visit(int id) {
+      if (state[id] == DONE) {
+        return;
+      }
+
+      if (state[id] == VISITING) {
+        throw new BuildRunException("The target [" + targets[id].name + "] depends on itself through its dependsOn targets");
+      }
+
+      state[id] = VISITING;
+      for (int dependency : targetDependencies[id]) {
+        visit(dependency);
+      }
+
+      state[id] = DONE;
+      planIndexes[id] = size;
+      order[size++] = id;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import org.savantbuild.domain.BuildCacheConfiguration;
+import org.savantbuild.output.Output;
+
+/**
+ * A build cache that shares entries through a remote HTTP server and keeps a copy of every entry in a local cache.
+ * The protocol is a simple {@code GET} and {@code PUT} of the entry at {@code <url>/<key>}. The entries are ZIP
+ * files, so they are already compressed when they are transferred. The entries are streamed to and from the disk and
+ * are never held in memory.
+ * <p>
+ * The remote cache is only an optimization, so any error, unexpected response or timeout disables the remote cache
+ * for the rest of the build and the build continues as if the entry wasn't in the cache. Each request is limited to
+ * the read timeout of the configuration in total, so a slow server never makes the build much slower than running
+ * the targets.
+ *
+ * @author Brian Pontarelli
+ */
+public class HTTPBuildCache implements BuildCache {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final BuildCacheConfiguration configuration;
+
+  private final BuildCache local;
+
+  private final Output output;
+
+  private final String url;
+
+  private volatile boolean disabled;
+
+  public HTTPBuildCache(Output output, BuildCacheConfiguration configuration, BuildCache local) {
+    this.output = output;
+    this.configuration = configuration;
+    this.local = local;
+    this.url = configuration.url.endsWith("/") ? configuration.url : configuration.url + "/";
+  }
+
+  @Override
+  public Path get(String key) {
+    Path file = local.get(key);
+    if (file != null || disabled) {
+      return file;
+    }
+
+    Path temp = null;
+    try {
+      HttpURLConnection connection = open(key, "GET");
+      int status = connection.getResponseCode();
+      if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+        discard(connection);
+        return null;
+      }
+
+      if (status != HttpURLConnection.HTTP_OK) {
+        discard(connection);
+        throw new IOException("The server returned the status code [" + status + "]");
+      }
+
+      temp = Files.createTempFile("savant-build-cache", ".zip");
+      try (InputStream is = connection.getInputStream(); OutputStream os = Files.newOutputStream(temp)) {
+        copy(is, os);
+      }
+
+      local.put(key, temp);
+      return local.get(key);
+    } catch (IOException | RuntimeException e) {
+      disable("download", key, e);
+      return null;
+    } finally {
+      delete(temp);
+    }
+  }
+
+  @Override
+  public void put(String key, Path archive) {
+    local.put(key, archive);
+    if (!configuration.push || disabled) {
+      return;
+    }
+
+    try {
+      HttpURLConnection connection = open(key, "PUT");
+      connection.setDoOutput(true);
+      connection.setChunkedStreamingMode(BUFFER_SIZE);
+      connection.setRequestProperty("Content-Type", "application/zip");
+      try (InputStream is = Files.newInputStream(archive); OutputStream os = connection.getOutputStream()) {
+        copy(is, os);
+      }
+
+      int status = connection.getResponseCode();
+      discard(connection);
+      if (status < 200 || status > 299) {
+        throw new IOException("The server returned the status code [" + status + "]");
+      }
+    } catch (IOException | RuntimeException e) {
+      disable("upload", key, e);
+    }
+  }
+
+  /**
+   * @return True if the remote cache was disabled because of an error.
+   */
+  public boolean isDisabled() {
+    return disabled;
+  }
+
+  private void copy(InputStream is, OutputStream os) throws IOException {
+    long deadline = System.nanoTime() + configuration.readTimeout * 1_000_000L;
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = is.read(buffer)) != -1) {
+      os.write(buffer, 0, read);
+      if (System.nanoTime() > deadline) {
+        throw new IOException("The transfer took longer than [" + configuration.readTimeout + "] milliseconds");
+      }
+    }
+  }
+
+  /**
+   * Reads and closes the body of the response so that the connection can be reused for the next request.
+   */
+  private void discard(HttpURLConnection connection) throws IOException {
+    InputStream is = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+    if (is != null) {
+      try (is) {
+        is.transferTo(OutputStream.nullOutputStream());
+      }
+    }
+  }
+
+  private void delete(Path temp) {
+    if (temp == null) {
+      return;
+    }
+
+    try {
+      Files.deleteIfExists(temp);
+    } catch (IOException e) {
+      // Ignore since it is a temp file
+    }
+  }
+
+  private void disable(String action, String key, Exception e) {
+    disabled = true;
+    output.infoln("Unable to %s the entry [%s] from the remote build cache [%s]. %s. The remote build cache is disabled " +
+        "for the rest of the build.", action, key, configuration.url, e.getMessage());
+    output.debug(e);
+  }
+
+  private HttpURLConnection open(String key, String method) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) URI.create(url + key).toURL().openConnection();
+    connection.setRequestMethod(method);
+    connection.setConnectTimeout(configuration.connectTimeout);
+    connection.setReadTimeout(configuration.readTimeout);
+    connection.setUseCaches(false);
+    if (configuration.username != null) {
+      String credentials = configuration.username + ":" + (configuration.password != null ? configuration.password : "");
+      connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    return connection;
+  }
+}
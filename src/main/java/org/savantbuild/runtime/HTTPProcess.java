@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.savantbuild.dep.workflow.FetchResult;
+import org.savantbuild.dep.workflow.ItemSource;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.ProcessFailureException;
+import org.savantbuild.output.Output;
+
+/**
+ * A fetch process for Savant and Maven repositories that uses {@link HttpClient}. The {@code url()} and
+ * {@code maven()} processes open a new connection for every file. This process shares a client per repository host
+ * between all the processes of the build, which keeps the connections to the host alive (or multiplexes the requests
+ * over a single HTTP/2 connection if the server supports it).
+ * <p>
+ * When an item is fetched, the requests for its MD5 file and the files that are fetched next are sent right away
+ * instead of one at a time. For the metadata of an artifact ({@code .amd} or {@code .pom}), this is the JAR file and
+ * its MD5 file, so the JAR is usually downloaded by the time the dependency service asks for it. The source JARs aren't
+ * requested ahead of time since most builds never fetch them. If the metadata is missing, the requests for the JAR are
+ * cancelled. Since the graph isn't reduced when the metadata is fetched, the JAR files of versions that are later
+ * dropped from the graph are requested too. These requests are cancelled when the build finishes (see
+ * {@link #cancelRequests()}).
+ * <p>
+ * Files are downloaded to temporary files in the given directory, which are deleted once they are published. The
+ * {@code ETag} and {@code Last-Modified} headers of a file are stored next to the published file in the cache. If the
+ * file is fetched again while it is still in the cache (i.e. the cache comes after this process in the fetch
+ * workflow), the request is conditional and the file isn't transferred again if it hasn't changed.
+ * <p>
+ * It is added to the fetch workflow like this:
+ * <pre>
+ *   fetch {
+ *     cache()
+ *     http(url: "https://repository.savantbuild.org")
+ *     http(url: "https://repo1.maven.org/maven2", maven: true)
+ *   }
+ * </pre>
+ *
+ * @author Brian Pontarelli
+ */
+public class HTTPProcess implements Process {
+  public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+  public static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+  private static final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+
+  private static final Set<HTTPProcess> requesting = ConcurrentHashMap.newKeySet();
+
+  public final Path directory;
+
+  public final String password;
+
+  public final ItemSource source;
+
+  public final String url;
+
+  public final String username;
+
+  private final Output output;
+
+  private final Map<URI, Request> pending = new ConcurrentHashMap<>();
+
+  public HTTPProcess(Output output, String url, String username, String password, ItemSource source, Path directory) {
+    this.output = output;
+    this.url = url.endsWith("/") ? url : url + "/";
+    this.username = username;
+    this.password = password;
+    this.source = source;
+    this.directory = directory;
+  }
+
+  /**
+   * Cancels the requests that were sent ahead of time but never fetched (i.e. the JAR files of the versions that were
+   * dropped from the dependency graph) and deletes their downloads. This is called when the build finishes.
+   */
+  public static void cancelRequests() {
+    for (HTTPProcess process : requesting) {
+      process.pending.keySet().forEach(process::cancel);
+    }
+
+    requesting.clear();
+  }
+
+  private static HttpClient client(URI uri) {
+    return clients.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), (key) -> HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .build());
+  }
+
+  private static void delete(Path file) {
+    try {
+      if (file != null) {
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException e) {
+      // Ignore since the file is a temporary file or it is replaced by the next download
+    }
+  }
+
+  private static Path validators(Path file) {
+    return file.resolveSibling(file.getFileName() + ".validators");
+  }
+
+  @Override
+  public FetchResult fetch(ResolvableItem item, PublishWorkflow publishWorkflow) throws ProcessFailureException {
+    Path cacheDirectory = cacheDirectory(item, publishWorkflow);
+    List<String> names = pipeline(item.item);
+    requesting.add(this);
+    for (String name : names) {
+      pending.computeIfAbsent(uri(item, name), (uri) -> request(uri, cacheDirectory != null ? cacheDirectory.resolve(name) : null));
+    }
+
+    FetchResult result = null;
+    try {
+      result = fetch(item, publishWorkflow, cacheDirectory);
+      return result;
+    } finally {
+      if (result == null) {
+        names.forEach((name) -> cancel(uri(item, name)));
+      }
+    }
+  }
+
+  /**
+   * Throws an exception since the process can't publish.
+   */
+  @Override
+  public Path publish(FetchResult fetchResult) throws ProcessFailureException {
+    throw new ProcessFailureException("The [http] process doesn't allow publishing.");
+  }
+
+  /**
+   * @return The directory of the item in the first cache of the publish workflow, or null if it doesn't have one.
+   */
+  private Path cacheDirectory(ResolvableItem item, PublishWorkflow publishWorkflow) {
+    for (Process process : publishWorkflow.processes) {
+      if (process instanceof CacheProcess cache) {
+        String dir = source == ItemSource.MAVEN ? cache.mavenDir : cache.savantDir;
+        return dir != null ? Paths.get(dir, item.group.replace('.', '/'), item.project, item.version) : null;
+      }
+    }
+
+    return null;
+  }
+
+  private void cancel(URI uri) {
+    Request request = pending.remove(uri);
+    if (request != null) {
+      request.download.cancel(true);
+      request.response.cancel(true);
+      request.response.whenComplete((response, e) -> delete(request.temp));
+    }
+  }
+
+  private FetchResult fetch(ResolvableItem item, PublishWorkflow publishWorkflow, Path cacheDirectory) {
+    ResolvableItem md5Item = new ResolvableItem(item, item.item + ".md5");
+    Download md5 = take(md5Item, cacheDirectory);
+    if (md5 == null) {
+      return null;
+    }
+
+    Download download = null;
+    try {
+      download = take(item, cacheDirectory);
+      if (download == null) {
+        return null;
+      }
+
+      verify(item, md5, download);
+      if (!md5.modified && !download.modified) {
+        return new FetchResult(download.file, source, item);
+      }
+
+      output.infoln("Downloaded [%s]", uri(item, item.item));
+      publish(md5, md5Item, publishWorkflow);
+      return new FetchResult(publish(download, item, publishWorkflow), source, item);
+    } finally {
+      md5.discard();
+      if (download != null) {
+        download.discard();
+      }
+    }
+  }
+
+  private Download handle(URI uri, Path cacheFile, Path temp, HttpResponse<Path> response) {
+    int status = response.statusCode();
+    if (status == 304) {
+      delete(temp);
+      return new Download(cacheFile, false, null);
+    }
+
+    if (status == 404 || status == 410) {
+      delete(temp);
+      return null;
+    }
+
+    if (status != 200) {
+      delete(temp);
+      throw new UncheckedIOException(new IOException("The server returned the status code [" + status + "] for [" + uri + "]"));
+    }
+
+    Properties validators = new Properties();
+    response.headers().firstValue("ETag").ifPresent((value) -> validators.setProperty("etag", value));
+    response.headers().firstValue("Last-Modified").ifPresent((value) -> validators.setProperty("lastModified", value));
+    return new Download(temp, true, validators);
+  }
+
+  /**
+   * @return The given item and the items that are fetched after it, whose requests are sent at the same time.
+   */
+  private List<String> pipeline(String item) {
+    List<String> items = new ArrayList<>(List.of(item + ".md5", item));
+    String artifact = null;
+    if (item.endsWith(".amd")) {
+      artifact = item.substring(0, item.length() - 4);
+    } else if (item.endsWith(".pom")) {
+      artifact = item.substring(0, item.length() - 4) + ".jar";
+    }
+
+    if (artifact != null) {
+      items.add(artifact + ".md5");
+      items.add(artifact);
+    }
+
+    return items;
+  }
+
+  private Path publish(Download download, ResolvableItem item, PublishWorkflow publishWorkflow) {
+    if (!download.modified) {
+      return download.file;
+    }
+
+    Path file = publishWorkflow.publish(new FetchResult(download.file, source, item));
+    if (file != null && !download.validators.isEmpty()) {
+      try (OutputStream os = Files.newOutputStream(validators(file))) {
+        download.validators.store(os, null);
+      } catch (IOException e) {
+        // Ignore since the next request for the file is then a normal request
+        output.debug(e);
+      }
+    }
+
+    return file;
+  }
+
+  private Request request(URI uri, Path cacheFile) {
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, "download", ".tmp");
+
+      HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+      if (username != null) {
+        String credentials = username + ":" + (password != null ? password : "");
+        builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+      }
+
+      if (cacheFile != null && Files.isRegularFile(cacheFile) && Files.isRegularFile(validators(cacheFile))) {
+        Properties validators = new Properties();
+        try (InputStream is = Files.newInputStream(validators(cacheFile))) {
+          validators.load(is);
+        }
+
+        if (validators.getProperty("etag") != null) {
+          builder.header("If-None-Match", validators.getProperty("etag"));
+        }
+
+        if (validators.getProperty("lastModified") != null) {
+          builder.header("If-Modified-Since", validators.getProperty("lastModified"));
+        }
+      }
+
+      Path file = temp;
+      CompletableFuture<HttpResponse<Path>> response = client(uri).sendAsync(builder.build(),
+          (info) -> info.statusCode() == 200 ? BodySubscribers.ofFile(file) : BodySubscribers.replacing(file));
+      return new Request(file, response, response.thenApply((result) -> handle(uri, cacheFile, file, result)));
+    } catch (IOException | RuntimeException e) {
+      delete(temp);
+      return new Request(null, CompletableFuture.failedFuture(e), CompletableFuture.failedFuture(e));
+    }
+  }
+
+  private Download take(ResolvableItem item, Path cacheDirectory) {
+    URI uri = uri(item, item.item);
+    Request request = pending.remove(uri);
+    if (request == null) {
+      request = request(uri, cacheDirectory != null ? cacheDirectory.resolve(item.item) : null);
+    }
+
+    try {
+      return request.download.join();
+    } catch (CompletionException e) {
+      output.debug(e.getCause());
+      throw new ProcessFailureException(item, e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause());
+    }
+  }
+
+  private URI uri(ResolvableItem item, String name) {
+    return URI.create(url + item.group.replace('.', '/') + "/" + item.project + "/" + item.version + "/" + name);
+  }
+
+  private void verify(ResolvableItem item, Download md5, Download download) {
+    try {
+      String expected = Files.readString(md5.file).trim().split("\\s+")[0].toLowerCase();
+      MessageDigest digest = MessageDigest.getInstance("MD5");
+      try (InputStream is = new DigestInputStream(Files.newInputStream(download.file), digest)) {
+        is.transferTo(OutputStream.nullOutputStream());
+      }
+
+      if (!HexFormat.of().formatHex(digest.digest()).equals(expected)) {
+        // Remove the validators of the cached files so that the next build downloads them again instead of revalidating them
+        for (Download cached : List.of(md5, download)) {
+          if (!cached.modified) {
+            delete(validators(cached.file));
+          }
+        }
+
+        throw new IOException("The MD5 checksum of the downloaded file doesn't match [" + item.item + ".md5]");
+      }
+    } catch (IOException e) {
+      throw new ProcessFailureException(item, e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support MD5", e);
+    }
+  }
+
+  /**
+   * A downloaded file, which is a temporary file with the validators of the response, or the cached file if the server
+   * answered that it wasn't modified.
+   */
+  private record Download(Path file, boolean modified, Properties validators) {
+    void discard() {
+      if (modified) {
+        delete(file);
+      }
+    }
+  }
+
+  /**
+   * A request that was sent, along with the temporary file that the response is written to.
+   */
+  private record Request(Path temp, CompletableFuture<HttpResponse<Path>> response, CompletableFuture<Download> download) {
+  }
+}
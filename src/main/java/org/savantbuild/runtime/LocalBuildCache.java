@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A build cache that stores the archives in a directory on the local disk (by default
+ * {@code ~/.savant/cache/build-cache}). The archives are split into sub-directories by the first two characters of
+ * their key to keep the directories small.
+ *
+ * @author Brian Pontarelli
+ */
+public class LocalBuildCache implements BuildCache {
+  private final Path directory;
+
+  public LocalBuildCache(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public Path get(String key) {
+    Path file = file(key);
+    return Files.isRegularFile(file) ? file : null;
+  }
+
+  @Override
+  public void put(String key, Path archive) {
+    Path file = file(key);
+    try {
+      Files.createDirectories(file.getParent());
+
+      // Copy to a temp file first so that concurrent builds never see a partial archive
+      Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+      Files.copy(archive, temp, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to store the entry [" + key + "] in the build cache [" + directory + "]. " + e.getMessage());
+    }
+  }
+
+  private Path file(String key) {
+    return directory.resolve(key.substring(0, 2)).resolve(key + ".zip");
+  }
+}
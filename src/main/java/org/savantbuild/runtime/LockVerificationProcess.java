@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.dep.workflow.FetchResult;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.ProcessFailureException;
+
+/**
+ * A fetch process that combines all the processes of a fetch workflow and verifies the files of the locked artifacts
+ * against the hashes in the {@link DependencyLock}. This is used when the dependency graph of a project is loaded from
+ * the lock file, so an artifact that was republished or tampered with after the lock file was written fails the build
+ * instead of being used.
+ * <p>
+ * Only the files of the locked artifacts are verified. Their metadata, source JARs and the items that plugins fetch
+ * are passed through.
+ *
+ * @author Brian Pontarelli
+ */
+public class LockVerificationProcess implements Process {
+  public final List<Process> processes;
+
+  private final Path file;
+
+  private final Map<String, String> hashes;
+
+  public LockVerificationProcess(List<Process> processes, Map<String, String> hashes, Path file) {
+    this.processes = processes;
+    this.hashes = hashes;
+    this.file = file;
+  }
+
+  /**
+   * @param item The item.
+   * @return The key of the item in the hashes of the lock file.
+   */
+  public static String key(ResolvableItem item) {
+    return item.group + ":" + item.project + ":" + item.version + ":" + item.item;
+  }
+
+  @Override
+  public FetchResult fetch(ResolvableItem item, PublishWorkflow publishWorkflow) throws ProcessFailureException {
+    for (Process process : processes) {
+      FetchResult result = process.fetch(item, publishWorkflow);
+      if (result == null) {
+        continue;
+      }
+
+      String expected = hashes.get(key(item));
+      if (expected != null) {
+        String actual = DependencyLock.hash(result.file());
+        if (!expected.equals(actual)) {
+          throw new BuildRunException("The file [" + result.file() + "] of the locked dependency [" + item + "] has the SHA-256 hash [" +
+              actual + "] but the dependency lock file [" + file.getFileName() + "] expects [" + expected + "]. If the dependency " +
+              "was republished on purpose, update the lock file using the --updateLock switch.");
+        }
+      }
+
+      return result;
+    }
+
+    return null;
+  }
+
+  /**
+   * Throws an exception since the process can't publish.
+   */
+  @Override
+  public Path publish(FetchResult fetchResult) throws ProcessFailureException {
+    throw new ProcessFailureException("The lock verification process of the fetch workflow doesn't allow publishing.");
+  }
+}
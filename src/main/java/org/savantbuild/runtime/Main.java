@@ -15,6 +15,7 @@
  */
 package org.savantbuild.runtime;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -35,6 +36,7 @@ import org.savantbuild.output.SystemOutOutput;
 import org.savantbuild.parser.DefaultTargetGraphBuilder;
 import org.savantbuild.parser.ParseException;
 import org.savantbuild.parser.groovy.GroovyBuildFileParser;
+import org.savantbuild.plugin.DefaultPluginLoader;
 import org.savantbuild.plugin.PluginLoadException;
 import org.savantbuild.security.MD5Exception;
 import org.savantbuild.util.CyclicException;
@@ -56,53 +58,97 @@ public class Main {
    * @param args CLI arguments.
    */
   public static void main(String... args) {
+    int exitCode = run(null, args);
+    if (exitCode != 0) {
+      System.exit(exitCode);
+    }
+  }
+
+  /**
+   * Runs a single build and returns the exit code instead of exiting the JVM. This is used by the main method and by
+   * the {@link BuildDaemon} to run builds.
+   *
+   * @param daemonCaches The caches that are kept between builds by the daemon or null if the build isn't run by the
+   *                     daemon.
+   * @param args         CLI arguments.
+   * @return The exit code of the build.
+   */
+  public static int run(DaemonCaches daemonCaches, String... args) {
     RuntimeConfigurationParser runtimeConfigurationParser = new DefaultRuntimeConfigurationParser();
-    RuntimeConfiguration runtimeConfiguration = runtimeConfigurationParser.parse(args);
+    RuntimeConfiguration runtimeConfiguration;
+    try {
+      runtimeConfiguration = runtimeConfigurationParser.parse(args);
+    } catch (BuildRunException e) {
+      new SystemOutOutput(true).errorln(e.getMessage());
+      return 1;
+    }
+
+    runtimeConfiguration.daemonCaches = daemonCaches;
+
     Output output = new SystemOutOutput(runtimeConfiguration.colorizeOutput);
     if (runtimeConfiguration.debug) {
       output.enableDebug();
     }
 
-    SavantPaths.get().migrate(output);
+    BuildTimings timings = runtimeConfiguration.timings;
+    try (BuildTimings.Timer ignore = timings.start("phase", "Migrate Savant paths")) {
+      SavantPaths.get().migrate(output);
+    }
 
     Path buildFile = projectDir.resolve("build.savant");
     if (!Files.isRegularFile(buildFile) || !Files.isReadable(buildFile)) {
       if (runtimeConfiguration.printVersion) {
         printVersion(output);
-        return;
+        return 0;
       } else if (runtimeConfiguration.help) {
         printHelp(output);
-        return;
+        return 0;
       } else {
         output.errorln("Build file [build.savant] is missing or not readable.");
-        System.exit(1);
+        return 1;
       }
     }
 
     try {
-      BuildRunner buildRunner = new DefaultBuildRunner(output, new GroovyBuildFileParser(output, new DefaultTargetGraphBuilder()), new DefaultProjectRunner(output));
-      buildRunner.run(buildFile, runtimeConfiguration);
+      runtimeConfiguration.listeners.load(Main.class.getClassLoader());
+      BuildRunner buildRunner = new DefaultBuildRunner(output, new GroovyBuildFileParser(output, new DefaultTargetGraphBuilder()), new DefaultProjectRunner(output, runtimeConfiguration));
+      try (BuildTimings.Timer ignore = timings.start("phase", "Build")) {
+        buildRunner.run(buildFile, runtimeConfiguration);
+      } finally {
+        DefaultPluginLoader.awaitResolutions(true);
+        HTTPProcess.cancelRequests();
+
+        if (runtimeConfiguration.printTimings) {
+          printTimings(timings, output);
+        }
+
+        if (runtimeConfiguration.traceFile != null) {
+          writeTrace(timings, projectDir.resolve(runtimeConfiguration.traceFile), output);
+        }
+      }
+
+      return 0;
     } catch (CompatibilityException e) {
       printCompatibilityError(e, output);
       int lineNumber = determineLineNumber(e);
       output.errorln(e.getMessage() + (lineNumber > 0 ? " Error occurred on line [" + lineNumber + "]" : ""));
       output.debug(e);
-      System.exit(1);
+      return 1;
     } catch (ArtifactMetaDataMissingException | ArtifactMissingException | BuildRunException | BuildFailureException |
              LicenseException | MD5Exception | ParseException | PluginLoadException | ProcessFailureException |
              PublishException | VersionException e) {
       int lineNumber = determineLineNumber(e);
       output.errorln(e.getMessage() + (lineNumber > 0 ? " Error occurred on line [" + lineNumber + "]" : ""));
       output.debug(e);
-      System.exit(1);
+      return 1;
     } catch (CyclicException e) {
       output.errorln("Your dependencies appear to have cycle. The root message is [" + e.getMessage() + "]");
       output.debug(e);
-      System.exit(1);
+      return 1;
     } catch (Throwable t) {
       output.errorln("Build failed due to an exception or error." + (runtimeConfiguration.debug ? "" : " Enable debug using the %s switch to see the stack trace."), RuntimeConfiguration.DEBUG_SWITCH);
       output.debug(t);
-      System.exit(1);
+      return 1;
     }
   }
 
@@ -125,6 +171,12 @@ public class Main {
     output.infoln("   --debug        Enables debug output");
     output.infoln("   --help         Displays the help message");
     output.infoln("   --listTargets  Lists the build targets");
+    output.infoln("   --jobs=N       Runs up to N independent targets in parallel (--jobs uses all processors)");
+    output.infoln("   --plan         Prints the order the targets will run in without running them");
+    output.infoln("   --buildCache   Restores the outputs of targets from the build cache when their inputs match");
+    output.infoln("   --timings      Prints how long each phase, plugin and target took and writes them to build/timings.json");
+    output.infoln("   --trace=path   Writes a timeline of the build for Perfetto or chrome://tracing (build/trace.json by default)");
+    output.infoln("   --updateLock   Writes the dependency graph of the project to savant.lock, which later builds load instead of resolving it");
     output.infoln("   --version      Prints the version of Savant");
     output.infoln("");
     output.infoln("NOTE: If any other argument starts with '--' then it is considered a switch. Switches can optionally have values using the equals sign like this:");
@@ -134,12 +186,45 @@ public class Main {
     output.infoln("");
   }
 
+  /**
+   * Prints the timings of the build and writes them to {@code build/timings.json}.
+   *
+   * @param timings The timings.
+   * @param output  The output.
+   */
+  public static void printTimings(BuildTimings timings, Output output) {
+    timings.printSummary(output);
+
+    Path file = projectDir.resolve("build/timings.json");
+    try {
+      timings.write(file);
+    } catch (IOException e) {
+      output.errorln("Unable to write the build timings to [%s]. %s", file, e.getMessage());
+    }
+  }
+
   public static void printVersion(Output output) {
     String version = Main.class.getPackage().getImplementationVersion();
     output.infoln("Savant Build System Version [" + version + "]");
     output.infoln("");
   }
 
+  /**
+   * Writes the timeline of the build in the trace event format.
+   *
+   * @param timings The timings.
+   * @param file    The trace file.
+   * @param output  The output.
+   */
+  public static void writeTrace(BuildTimings timings, Path file, Output output) {
+    try {
+      timings.writeTrace(file);
+      output.infoln("Wrote the build trace to [%s]. Open it in https://ui.perfetto.dev or chrome://tracing", file);
+    } catch (IOException e) {
+      output.errorln("Unable to write the build trace to [%s]. %s", file, e.getMessage());
+    }
+  }
+
   private static int determineLineNumber(Exception e) {
     for (int i = 0; i < e.getStackTrace().length; i++) {
       StackTraceElement ste = e.getStackTrace()[i];
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Captures everything a target writes to {@link System#out} and {@link System#err} so that it can be stored in the
+ * build cache and replayed when the target's outputs are restored. While installed, both streams are replaced with
+ * streams that write to the original streams and also to the capture buffer of the current thread (and the threads
+ * it starts). This keeps the output of targets that run in parallel apart.
+ *
+ * @author Brian Pontarelli
+ */
+public class OutputCapture {
+  private static final InheritableThreadLocal<ByteArrayOutputStream> buffer = new InheritableThreadLocal<>();
+
+  private static int installs;
+
+  private static PrintStream originalErr;
+
+  private static PrintStream originalOut;
+
+  /**
+   * Runs the given runnable and returns everything it wrote. {@link #install()} must be called first, otherwise the
+   * output is not captured.
+   *
+   * @param runnable The runnable.
+   * @return The output.
+   */
+  public static String capture(Runnable runnable) {
+    ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    buffer.set(captured);
+    try {
+      runnable.run();
+    } finally {
+      buffer.remove();
+    }
+
+    return captured.toString();
+  }
+
+  /**
+   * Replaces System.out and System.err with the capturing streams.
+   */
+  public static synchronized void install() {
+    if (installs++ == 0) {
+      originalOut = System.out;
+      originalErr = System.err;
+      System.setOut(new PrintStream(new CapturingOutputStream(originalOut), true));
+      System.setErr(new PrintStream(new CapturingOutputStream(originalErr), true));
+    }
+  }
+
+  /**
+   * Restores the original System.out and System.err once every install has been uninstalled.
+   */
+  public static synchronized void uninstall() {
+    if (installs > 0 && --installs == 0) {
+      System.out.flush();
+      System.err.flush();
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+  }
+
+  private static class CapturingOutputStream extends OutputStream {
+    private final OutputStream delegate;
+
+    private CapturingOutputStream(OutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      ByteArrayOutputStream captured = buffer.get();
+      if (captured != null) {
+        captured.write(b);
+      }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      delegate.write(bytes, offset, length);
+      ByteArrayOutputStream captured = buffer.get();
+      if (captured != null) {
+        captured.write(bytes, offset, length);
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.workflow.FetchResult;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.ProcessFailureException;
+import org.savantbuild.domain.Project;
+import org.savantbuild.output.Output;
+import org.savantbuild.plugin.DefaultPluginLoader;
+
+/**
+ * A fetch process that runs the {@link DependencyPrefetcher} the first time the project's dependencies are resolved.
+ * It is the first process of the fetch workflow and never fetches anything itself. Builds that don't resolve the
+ * project's dependencies (i.e. {@code sb clean}) never prefetch them.
+ * <p>
+ * The prefetch is started by the first fetch of a direct dependency of the project. It waits for the plugins that are
+ * resolved in the background to finish first and every other fetch waits for the prefetch to finish, so the prefetch
+ * threads are the only ones that publish to the cache while it runs. Fetches by the plugin resolvers and the prefetch
+ * threads themselves are passed through.
+ *
+ * @author Brian Pontarelli
+ */
+public class PrefetchProcess implements Process {
+  private final Set<String> directDependencies = new HashSet<>();
+
+  private final Output output;
+
+  private final Project project;
+
+  private final BuildTimings timings;
+
+  private volatile boolean finished;
+
+  private volatile boolean started;
+
+  public PrefetchProcess(Project project, BuildTimings timings, Output output) {
+    this.project = project;
+    this.timings = timings;
+    this.output = output;
+    for (DependencyGroup group : project.dependencies.groups.values()) {
+      for (Artifact dependency : group.dependencies) {
+        directDependencies.add(dependency.id.group + ":" + dependency.id.project);
+      }
+    }
+  }
+
+  @Override
+  public FetchResult fetch(ResolvableItem item, PublishWorkflow publishWorkflow) {
+    if (finished || DependencyPrefetcher.isPrefetching() || DefaultPluginLoader.isResolving()) {
+      return null;
+    }
+
+    if (started || directDependencies.contains(item.group + ":" + item.project)) {
+      prefetch();
+    }
+
+    return null;
+  }
+
+  /**
+   * Throws an exception since the process can't publish.
+   */
+  @Override
+  public Path publish(FetchResult fetchResult) throws ProcessFailureException {
+    throw new ProcessFailureException("The prefetch process of the fetch workflow doesn't allow publishing.");
+  }
+
+  private synchronized void prefetch() {
+    if (finished) {
+      return;
+    }
+
+    started = true;
+    try (BuildTimings.Timer ignore = timings.start("dependency", "Prefetch dependencies")) {
+      DefaultPluginLoader.awaitResolutions(false);
+      new DependencyPrefetcher(project.workflow, project.fetchConcurrency, output).prefetch(project.dependencies);
+    } finally {
+      finished = true;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.savantbuild.dep.workflow.FetchResult;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.MavenProcess;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.ProcessFailureException;
+import org.savantbuild.dep.workflow.process.SVNProcess;
+import org.savantbuild.dep.workflow.process.URLProcess;
+import org.savantbuild.output.Output;
+
+/**
+ * A fetch process that combines the remote repository processes of a fetch workflow and uses the
+ * {@link RepositoryLookups} to skip the repositories that are known not to have an item. Without this, every artifact
+ * that is only in Maven Central is looked up in the Savant repository first on every cold resolution, and items that no
+ * repository has (i.e. most source JARs) are looked up in every repository on every build. If every repository is known
+ * not to have the item, it is reported as missing without any requests until the negative lookups expire.
+ * <p>
+ * By default, the repositories are tried in the order they were defined, so the result doesn't depend on the lookups of
+ * previous builds. If {@code preferGroupRepository} is enabled, the repository that last served an item of the group is
+ * tried first. This saves the requests to the other repositories for the items that haven't been looked up yet, but an
+ * artifact that is in more than one repository can then be fetched from a different repository than before.
+ *
+ * @author Brian Pontarelli
+ */
+public class RepositoryLookupProcess implements Process {
+  public final boolean preferGroupRepository;
+
+  public final List<Process> processes;
+
+  private final RepositoryLookups lookups;
+
+  private final Output output;
+
+  public RepositoryLookupProcess(Output output, List<Process> processes, RepositoryLookups lookups) {
+    this(output, processes, lookups, false);
+  }
+
+  public RepositoryLookupProcess(Output output, List<Process> processes, RepositoryLookups lookups, boolean preferGroupRepository) {
+    this.output = output;
+    this.processes = processes;
+    this.lookups = lookups;
+    this.preferGroupRepository = preferGroupRepository;
+  }
+
+  /**
+   * @param process The process.
+   * @return The key of the repository of the process that is used for the lookups.
+   */
+  public static String repository(Process process) {
+    if (process instanceof HTTPProcess http) {
+      return http.url;
+    } else if (process instanceof MavenProcess maven) {
+      return maven.url;
+    } else if (process instanceof URLProcess url) {
+      return url.url;
+    } else if (process instanceof SVNProcess svn) {
+      return svn.repository;
+    }
+
+    return process.getClass().getName();
+  }
+
+  @Override
+  public FetchResult fetch(ResolvableItem item, PublishWorkflow publishWorkflow) throws ProcessFailureException {
+    String path = item.group.replace('.', '/') + "/" + item.project + "/" + item.version + "/" + item.item;
+    for (Process process : order(item.group)) {
+      String repository = repository(process);
+      if (lookups.isMissing(repository, path)) {
+        output.debugln("Skipping the repository [%s] for [%s] since it didn't have it the last time", repository, path);
+        continue;
+      }
+
+      FetchResult result = process.fetch(item, publishWorkflow);
+      if (result != null) {
+        if (preferGroupRepository) {
+          lookups.served(repository, item.group);
+        }
+
+        return result;
+      }
+
+      lookups.missing(repository, path);
+    }
+
+    return null;
+  }
+
+  /**
+   * Throws an exception since the process can't publish.
+   */
+  @Override
+  public Path publish(FetchResult fetchResult) throws ProcessFailureException {
+    throw new ProcessFailureException("The remote repositories of the fetch workflow don't allow publishing.");
+  }
+
+  private List<Process> order(String group) {
+    String preferred = preferGroupRepository ? lookups.preferred(group) : null;
+    if (preferred == null) {
+      return processes;
+    }
+
+    List<Process> ordered = new ArrayList<>(processes);
+    for (Process process : processes) {
+      if (repository(process).equals(preferred)) {
+        ordered.remove(process);
+        ordered.add(0, process);
+        break;
+      }
+    }
+
+    return ordered;
+  }
+}
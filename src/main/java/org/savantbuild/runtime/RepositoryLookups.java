@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.savantbuild.output.Output;
+
+/**
+ * Remembers the lookups of the remote repositories of the fetch workflow between builds. It records the items that a
+ * repository doesn't have (a negative lookup) and the repository that last served each group. The negative lookups
+ * expire after the time to live, so an item that is published to a repository later is eventually found there.
+ * <p>
+ * The lookups are stored in a single file that new lookups are appended to. Each line looks like:
+ * <pre>
+ *   miss &lt;time&gt; &lt;repository&gt; &lt;item path&gt;
+ *   hit &lt;time&gt; &lt;repository&gt; &lt;group&gt;
+ * </pre>
+ * <p>
+ * The file is compacted when it is loaded if most of its lines have expired or been replaced. The lookups are only an
+ * optimization, so any error reading or writing the file is output as a debug message and ignored.
+ *
+ * @author Brian Pontarelli
+ */
+public class RepositoryLookups {
+  public static final Duration DEFAULT_TTL = Duration.ofDays(1);
+
+  private final Path file;
+
+  private final Map<String, String> groups = new ConcurrentHashMap<>();
+
+  private final Map<String, Long> misses = new ConcurrentHashMap<>();
+
+  private final Output output;
+
+  private final long ttlMillis;
+
+  public RepositoryLookups(Path file, Duration ttl, Output output) {
+    this.file = file;
+    this.ttlMillis = ttl.toMillis();
+    this.output = output;
+    load();
+  }
+
+  /**
+   * @param group The group of an artifact.
+   * @return The repository that last served an item of the group or null.
+   */
+  public String preferred(String group) {
+    return groups.get(group);
+  }
+
+  /**
+   * Records that the repository served an item of the group.
+   *
+   * @param repository The repository.
+   * @param group      The group of the item.
+   */
+  public void served(String repository, String group) {
+    if (!repository.equals(groups.put(group, repository))) {
+      append("hit " + System.currentTimeMillis() + " " + repository + " " + group);
+    }
+  }
+
+  /**
+   * Records that the repository doesn't have the item.
+   *
+   * @param repository The repository.
+   * @param path       The path of the item in the repository.
+   */
+  public void missing(String repository, String path) {
+    long now = System.currentTimeMillis();
+    misses.put(repository + " " + path, now);
+    append("miss " + now + " " + repository + " " + path);
+  }
+
+  /**
+   * Determines if the repository was recorded as not having the item and the record hasn't expired yet.
+   *
+   * @param repository The repository.
+   * @param path       The path of the item in the repository.
+   * @return True if the repository doesn't have the item.
+   */
+  public boolean isMissing(String repository, String path) {
+    Long time = misses.get(repository + " " + path);
+    return time != null && System.currentTimeMillis() - time < ttlMillis;
+  }
+
+  private synchronized void append(String line) {
+    try {
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, line + "\n", StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      output.debugln("Unable to store the repository lookup in [%s]. %s", file, e.getMessage());
+    }
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file);
+    } catch (IOException e) {
+      output.debugln("Unable to load the repository lookups from [%s]. %s", file, e.getMessage());
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    for (String line : lines) {
+      String[] parts = line.split(" ");
+      if (parts.length != 4) {
+        continue;
+      }
+
+      try {
+        long time = Long.parseLong(parts[1]);
+        if (parts[0].equals("miss") && now - time < ttlMillis) {
+          misses.put(parts[2] + " " + parts[3], time);
+        } else if (parts[0].equals("hit")) {
+          groups.put(parts[3], parts[2]);
+        }
+      } catch (NumberFormatException e) {
+        // Skip the line since it was only partially written
+      }
+    }
+
+    if (lines.size() > 1_000 && lines.size() > 2 * (misses.size() + groups.size())) {
+      StringBuilder build = new StringBuilder();
+      misses.forEach((key, time) -> build.append("miss ").append(time).append(' ').append(key).append('\n'));
+      groups.forEach((group, repository) -> build.append("hit ").append(now).append(' ').append(repository).append(' ').append(group).append('\n'));
+      try {
+        Path temp = Files.createTempFile(file.getParent(), "repository-lookups", ".tmp");
+        Files.writeString(temp, build.toString());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        output.debugln("Unable to compact the repository lookups in [%s]. %s", file, e.getMessage());
+      }
+    }
+  }
+}
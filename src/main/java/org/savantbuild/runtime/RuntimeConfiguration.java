@@ -15,6 +15,7 @@
  */
 package org.savantbuild.runtime;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -31,11 +32,22 @@ public class RuntimeConfiguration {
    */
   public static final String DEBUG_SWITCH = "--debug";
 
+  /**
+   * Determines if the outputs of targets that declare their inputs and outputs are stored in and restored from the
+   * build cache.
+   */
+  public boolean buildCache;
+
   /**
    * Determines if the output should be colorized.
    */
   public boolean colorizeOutput = true;
 
+  /**
+   * The caches that the build daemon keeps between builds or null if the build isn't run by the daemon.
+   */
+  public DaemonCaches daemonCaches;
+
   /**
    * Determines if debug output is enabled.
    */
@@ -46,11 +58,38 @@ public class RuntimeConfiguration {
    */
   public boolean help;
 
+  /**
+   * The maximum number of targets that can be executed concurrently. Targets are only ever run concurrently if they
+   * don't depend on each other.
+   */
+  public int jobs = 1;
+
+  /**
+   * The listeners that are called for the events of the build.
+   */
+  public BuildListeners listeners = new BuildListeners();
+
   /**
    * Determines if the targets in the project build file should be printed to the output.
    */
   public boolean listTargets;
 
+  /**
+   * Determines if the execution plan for the targets should be printed to the output instead of running the targets.
+   */
+  public boolean printPlan;
+
+  /**
+   * Determines if the timings of the build should be printed at the end of the build and written to
+   * {@code build/timings.json}.
+   */
+  public boolean printTimings;
+
+  /**
+   * The file that the timeline of the build is written to in the trace event format or null if it isn't traced.
+   */
+  public Path traceFile;
+
   /**
    * The command-line switches.
    */
@@ -61,6 +100,16 @@ public class RuntimeConfiguration {
    */
   public List<String> targets = new ArrayList<>();
 
+  /**
+   * The timings of the phases, plugins and targets of the build.
+   */
+  public BuildTimings timings = new BuildTimings();
+
+  /**
+   * Determines if the dependency lock file ({@code savant.lock}) should be written from the project's dependencies.
+   */
+  public boolean updateLock;
+
   /**
    * Determines if the version should be displayed
    */
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.output.Output;
+import org.savantbuild.runtime.TargetFingerprints.FileFingerprint;
+
+/**
+ * Stores the outputs of targets in a {@link BuildCache} and restores them when a target is run again with the same
+ * inputs. The cache key of a target is a SHA-256 hash of:
+ * <ul>
+ *   <li>The name of the target and the group, name and version of the project</li>
+ *   <li>The contents of the declared inputs of the target</li>
+ *   <li>The contents of the build file. The source of the target's closure isn't available once the build file is
+ *   compiled, so any change to the build file changes the key of every target</li>
+ *   <li>The plugins loaded by the project</li>
+ *   <li>The command-line switches</li>
+ *   <li>The version of Java running the build</li>
+ * </ul>
+ * <p>
+ * An entry in the cache is a ZIP file that contains the files of the declared outputs and everything the target wrote
+ * to the console, which is replayed when the outputs are restored.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetCache {
+  private static final String LOG_ENTRY = "log";
+
+  private static final String OUTPUT_PREFIX = "outputs/";
+
+  private final BuildCache buildCache;
+
+  private final TargetFingerprints fingerprints;
+
+  private final Output output;
+
+  private final Project project;
+
+  private final Path root;
+
+  private final Switches switches;
+
+  private String projectKey;
+
+  public TargetCache(Project project, Switches switches, TargetFingerprints fingerprints, BuildCache buildCache) {
+    this.project = project;
+    this.switches = switches;
+    this.fingerprints = fingerprints;
+    this.buildCache = buildCache;
+    this.output = project.output;
+    this.root = project.directory.toAbsolutePath().normalize();
+  }
+
+  /**
+   * Determines if the target declares both its inputs and outputs and can therefore be cached.
+   *
+   * @param target The target.
+   * @return True if the target can be cached.
+   */
+  public static boolean supports(Target target) {
+    return TargetFingerprints.supports(target) && target.outputs != null && !target.outputs.isEmpty();
+  }
+
+  /**
+   * Computes the cache key of the target.
+   *
+   * @param target The target.
+   * @return The key, which is a hex encoded SHA-256 hash.
+   */
+  public String key(Target target) {
+    MessageDigest digest = newDigest();
+    update(digest, projectKey());
+    update(digest, target.name);
+    for (Map.Entry<String, FileFingerprint> entry : fingerprints.computeInputs(target).entrySet()) {
+      update(digest, entry.getKey());
+      update(digest, entry.getValue().hash);
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Restores the outputs of the target from the cache and replays its console output.
+   *
+   * @param target The target.
+   * @param key    The cache key of the target.
+   * @return True if the cache contained the key and the outputs were restored, false otherwise.
+   */
+  public boolean restore(Target target, String key) {
+    Path archive = buildCache.get(key);
+    if (archive == null) {
+      return false;
+    }
+
+    String log = "";
+    try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+      for (String path : target.outputs) {
+        PathTools.prune(root.resolve(path));
+      }
+
+      ZipEntry entry;
+      while ((entry = zis.getNextEntry()) != null) {
+        String name = entry.getName();
+        if (name.equals(LOG_ENTRY)) {
+          log = new String(zis.readAllBytes(), StandardCharsets.UTF_8);
+          continue;
+        }
+
+        Path file = name.startsWith(OUTPUT_PREFIX) ? root.resolve(name.substring(OUTPUT_PREFIX.length())).normalize() : null;
+        if (file == null || !file.startsWith(root)) {
+          throw new IOException("The entry [" + name + "] is outside of the project directory");
+        }
+
+        Files.createDirectories(file.getParent());
+        Files.copy(zis, file, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(file, entry.getLastModifiedTime());
+      }
+    } catch (IOException e) {
+      // The target is run normally and replaces anything that was partially restored
+      output.infoln("Unable to restore the outputs of the target [%s] from the build cache. %s", target.name, e.getMessage());
+      output.debug(e);
+      return false;
+    }
+
+    output.info("%s", log);
+    return true;
+  }
+
+  /**
+   * Stores the outputs of the target in the cache after it completed successfully. A failure to store the outputs is
+   * logged and doesn't fail the build.
+   *
+   * @param target The target.
+   * @param key    The cache key of the target (computed before it ran).
+   * @param log    The console output of the target.
+   */
+  public void store(Target target, String key, String log) {
+    Path archive = null;
+    try {
+      archive = Files.createTempFile("savant-build-cache", ".zip");
+      try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+        zos.putNextEntry(new ZipEntry(LOG_ENTRY));
+        zos.write(log.getBytes(StandardCharsets.UTF_8));
+        zos.closeEntry();
+
+        for (Path file : outputFiles(target)) {
+          ZipEntry entry = new ZipEntry(OUTPUT_PREFIX + root.relativize(file).toString().replace('\\', '/'));
+          entry.setLastModifiedTime(Files.getLastModifiedTime(file));
+          zos.putNextEntry(entry);
+          Files.copy(file, zos);
+          zos.closeEntry();
+        }
+      }
+
+      buildCache.put(key, archive);
+    } catch (IOException | BuildRunException e) {
+      output.infoln("Unable to store the outputs of the target [%s] in the build cache. %s", target.name, e.getMessage());
+      output.debug(e);
+    } finally {
+      if (archive != null) {
+        try {
+          Files.deleteIfExists(archive);
+        } catch (IOException e) {
+          // Ignore since it is a temp file
+        }
+      }
+    }
+  }
+
+  private List<Path> outputFiles(Target target) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (String path : target.outputs) {
+      Path file = root.resolve(path);
+      if (Files.isDirectory(file)) {
+        try (Stream<Path> stream = Files.walk(file)) {
+          stream.filter(Files::isRegularFile).sorted().forEach(files::add);
+        }
+      } else if (Files.isRegularFile(file)) {
+        files.add(file);
+      }
+    }
+
+    return files;
+  }
+
+  /**
+   * Computes the part of the key that is the same for every target of the project. This is computed the first time it
+   * is needed, which is after the build file has loaded all of its plugins.
+   */
+  private synchronized String projectKey() {
+    if (projectKey != null) {
+      return projectKey;
+    }
+
+    MessageDigest digest = newDigest();
+    update(digest, "savant-build-cache-1");
+    update(digest, project.group + ":" + project.name + ":" + project.version);
+    update(digest, System.getProperty("java.version"));
+    try {
+      digest.update(Files.readAllBytes(project.buildFile));
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to read the build file [" + project.buildFile + "] to compute the build cache key. " + e.getMessage());
+    }
+
+    TreeSet<String> plugins = new TreeSet<>();
+    for (Artifact artifact : project.plugins.keySet()) {
+      plugins.add(artifact.toString());
+    }
+
+    plugins.forEach((plugin) -> update(digest, plugin));
+    new TreeSet<>(switches.booleanSwitches).forEach((name) -> update(digest, "--" + name));
+    new TreeMap<>(switches.valueSwitches).forEach((name, values) -> update(digest, "--" + name + "=" + values));
+
+    projectKey = HexFormat.of().formatHex(digest.digest());
+    return projectKey;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+}
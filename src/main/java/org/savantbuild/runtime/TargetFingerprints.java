@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+
+/**
+ * Computes and stores the fingerprints of the files that targets declare as their inputs and outputs. A target is
+ * up-to-date if the fingerprints of its inputs and outputs are the same as the last time it completed successfully.
+ * <p>
+ * A fingerprint of a file is its size, last modified time and a SHA-256 hash of its contents. The hash is only
+ * recomputed if the size or last modified time of the file changed since the fingerprint was stored. This means that
+ * checking an unchanged target only needs to stat its files.
+ * <p>
+ * The fingerprints of a target also contain the build file, the plugins loaded by the project and the command-line
+ * switches, which are the same for every target. The closure of a target and the settings of the plugins aren't
+ * available once the build file is compiled, so any change to the build file makes every target out of date (like the
+ * key of the {@link TargetCache}).
+ * <p>
+ * The fingerprints are stored in the project's build directory ({@code build/savant/fingerprints}) so that cleaning
+ * the project also forces every target to run again.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetFingerprints {
+  private static final String INPUT = "input";
+
+  private static final String OUTPUT = "output";
+
+  private static final String PROJECT = "project";
+
+  private final Path directory;
+
+  private final Project project;
+
+  private final Path projectDirectory;
+
+  private final Switches switches;
+
+  private Map<String, FileFingerprint> projectFingerprints;
+
+  public TargetFingerprints(Path projectDirectory) {
+    this(projectDirectory, null, null);
+  }
+
+  public TargetFingerprints(Project project, Switches switches) {
+    this(project.directory, project, switches);
+  }
+
+  private TargetFingerprints(Path projectDirectory, Project project, Switches switches) {
+    this.projectDirectory = projectDirectory;
+    this.directory = projectDirectory.resolve("build/savant/fingerprints");
+    this.project = project;
+    this.switches = switches;
+  }
+
+  /**
+   * Determines if the target declares its inputs and can therefore be checked.
+   *
+   * @param target The target.
+   * @return True if the target declares inputs.
+   */
+  public static boolean supports(Target target) {
+    return target.inputs != null && !target.inputs.isEmpty();
+  }
+
+  /**
+   * Computes the fingerprints of all the inputs and outputs of the target and of the project. The previous fingerprints are used to skip
+   * hashing the files whose size and last modified time have not changed.
+   *
+   * @param target   The target.
+   * @param previous The previous fingerprints or null if there aren't any.
+   * @return The fingerprints keyed by the kind and path of the file.
+   */
+  public Map<String, FileFingerprint> compute(Target target, Map<String, FileFingerprint> previous) {
+    Map<String, FileFingerprint> fingerprints = new TreeMap<>(projectFingerprints(previous));
+    compute(INPUT, target.inputs, previous, fingerprints);
+    compute(OUTPUT, target.outputs, previous, fingerprints);
+    return fingerprints;
+  }
+
+  /**
+   * Computes the fingerprints of the inputs of the target. The stored fingerprints of the target are used to skip
+   * hashing the files whose size and last modified time have not changed.
+   *
+   * @param target The target.
+   * @return The fingerprints keyed by the kind and path of the file.
+   */
+  public Map<String, FileFingerprint> computeInputs(Target target) {
+    Map<String, FileFingerprint> fingerprints = new TreeMap<>();
+    compute(INPUT, target.inputs, load(target), fingerprints);
+    return fingerprints;
+  }
+
+  /**
+   * Checks if the target is up-to-date.
+   *
+   * @param target The target.
+   * @return True if the target has stored fingerprints and all of its inputs and outputs and the project still match
+   *     them.
+   */
+  public boolean isUpToDate(Target target) {
+    Map<String, FileFingerprint> previous = load(target);
+    if (previous == null) {
+      return false;
+    }
+
+    Map<String, FileFingerprint> current = compute(target, previous);
+    if (!previous.keySet().equals(current.keySet())) {
+      return false;
+    }
+
+    boolean touched = false;
+    for (Map.Entry<String, FileFingerprint> entry : current.entrySet()) {
+      FileFingerprint before = previous.get(entry.getKey());
+      FileFingerprint now = entry.getValue();
+      if (!now.sameContents(before)) {
+        return false;
+      }
+
+      touched |= now.lastModified != before.lastModified;
+    }
+
+    // The files were touched but not changed, so store the new times to skip hashing them next time
+    if (touched) {
+      store(target, current);
+    }
+
+    return true;
+  }
+
+  /**
+   * Loads the stored fingerprints of the target.
+   *
+   * @param target The target.
+   * @return The fingerprints or null if the target hasn't completed successfully before (or the fingerprints are
+   *     unreadable).
+   */
+  public Map<String, FileFingerprint> load(Target target) {
+    Path file = fingerprintFile(target);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    Map<String, FileFingerprint> fingerprints = new TreeMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(file)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.split("\t");
+        if (parts.length != 4) {
+          return null;
+        }
+
+        fingerprints.put(parts[0], new FileFingerprint(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]));
+      }
+    } catch (IOException | NumberFormatException e) {
+      return null;
+    }
+
+    return fingerprints;
+  }
+
+  /**
+   * Computes and stores the fingerprints of the target after it completed successfully.
+   *
+   * @param target The target.
+   */
+  public void record(Target target) {
+    store(target, compute(target, load(target)));
+  }
+
+  /**
+   * Stores the given fingerprints for the target.
+   *
+   * @param target       The target.
+   * @param fingerprints The fingerprints.
+   */
+  public void store(Target target, Map<String, FileFingerprint> fingerprints) {
+    Path file = fingerprintFile(target);
+    try {
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+        for (Map.Entry<String, FileFingerprint> entry : fingerprints.entrySet()) {
+          FileFingerprint fingerprint = entry.getValue();
+          writer.write(entry.getKey() + "\t" + fingerprint.size + "\t" + fingerprint.lastModified + "\t" + fingerprint.hash + "\n");
+        }
+      }
+
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to store the fingerprints of the target [" + target.name + "] in [" + directory + "]. " + e.getMessage());
+    }
+  }
+
+  private void compute(String kind, List<String> paths, Map<String, FileFingerprint> previous,
+                       Map<String, FileFingerprint> fingerprints) {
+    if (paths == null) {
+      return;
+    }
+
+    for (String path : paths) {
+      Path root = projectDirectory.resolve(path);
+      if (Files.isDirectory(root)) {
+        try (Stream<Path> files = Files.walk(root)) {
+          files.filter(Files::isRegularFile)
+               .forEach((file) -> fingerprint(kind, file, previous, fingerprints));
+        } catch (IOException e) {
+          throw new BuildRunException("Unable to list the files in [" + root + "] to check if the target is up-to-date. " + e.getMessage());
+        }
+      } else if (Files.isRegularFile(root)) {
+        fingerprint(kind, root, previous, fingerprints);
+      } else {
+        // Record missing files so that creating them makes the target out of date
+        fingerprints.put(kind + ":" + path, FileFingerprint.MISSING);
+      }
+    }
+  }
+
+  private void fingerprint(String kind, Path file, Map<String, FileFingerprint> previous,
+                           Map<String, FileFingerprint> fingerprints) {
+    String key = kind + ":" + projectDirectory.relativize(file).toString().replace('\\', '/');
+    try {
+      long size = Files.size(file);
+      long lastModified = Files.getLastModifiedTime(file).toMillis();
+      FileFingerprint before = previous != null ? previous.get(key) : null;
+      if (before != null && before.size == size && before.lastModified == lastModified) {
+        fingerprints.put(key, before);
+      } else {
+        fingerprints.put(key, new FileFingerprint(size, lastModified, hash(file)));
+      }
+    } catch (IOException e) {
+      throw new BuildRunException("Unable to fingerprint the file [" + file + "]. " + e.getMessage());
+    }
+  }
+
+  /**
+   * Computes the fingerprints of the project the first time they are needed, which is after the build file has loaded
+   * all of its plugins.
+   */
+  private synchronized Map<String, FileFingerprint> projectFingerprints(Map<String, FileFingerprint> previous) {
+    if (projectFingerprints != null) {
+      return projectFingerprints;
+    }
+
+    Map<String, FileFingerprint> fingerprints = new TreeMap<>();
+    if (project != null) {
+      if (project.buildFile != null) {
+        fingerprint(PROJECT, project.buildFile, previous, fingerprints);
+      }
+
+      TreeSet<String> plugins = new TreeSet<>();
+      for (Artifact artifact : project.plugins.keySet()) {
+        plugins.add(artifact.toString());
+      }
+
+      fingerprints.put(PROJECT + ":plugins", FileFingerprint.of(String.join("\n", plugins)));
+    }
+
+    if (switches != null) {
+      StringBuilder build = new StringBuilder();
+      new TreeSet<>(switches.booleanSwitches).forEach((name) -> build.append("--").append(name).append('\n'));
+      new TreeMap<>(switches.valueSwitches).forEach((name, values) -> build.append("--").append(name).append('=').append(values).append('\n'));
+      fingerprints.put(PROJECT + ":switches", FileFingerprint.of(build.toString()));
+    }
+
+    projectFingerprints = fingerprints;
+    return projectFingerprints;
+  }
+
+  private Path fingerprintFile(Target target) {
+    return directory.resolve(target.name.replaceAll("[^a-zA-Z0-9._-]", "_") + ".fingerprints");
+  }
+
+  private static String hash(Path file) throws IOException {
+    try (InputStream is = Files.newInputStream(file)) {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] buffer = new byte[64 * 1024];
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+    }
+  }
+
+  /**
+   * The fingerprint of a single file.
+   */
+  public static class FileFingerprint {
+    public static final FileFingerprint MISSING = new FileFingerprint(-1, -1, "missing");
+
+    public final String hash;
+
+    public final long lastModified;
+
+    public final long size;
+
+    public FileFingerprint(long size, long lastModified, String hash) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.hash = hash;
+    }
+
+    /**
+     * Creates a fingerprint of a value that isn't a file (i.e. the command-line switches).
+     *
+     * @param value The value.
+     * @return The fingerprint, which only contains the hash of the value.
+     */
+    public static FileFingerprint of(String value) {
+      try {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return new FileFingerprint(bytes.length, 0, HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)));
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("The JVM doesn't support SHA-256", e);
+      }
+    }
+
+    /**
+     * Compares the size and hash of this fingerprint with the other one. The last modified time is ignored since
+     * touching a file doesn't change it.
+     *
+     * @param other The other fingerprint.
+     * @return True if the contents are the same.
+     */
+    public boolean sameContents(FileFingerprint other) {
+      return other != null && size == other.size && Objects.equals(hash, other.hash);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the CPU time, allocated bytes and GC time of a target. The invocation of the target is run on a new thread in
+ * a thread group of its own. The threads that the target starts (and the threads they start) are created in the same
+ * thread group, which is how the work done by helper threads is attributed to the target even if other targets are
+ * running in parallel.
+ * <p>
+ * The target thread measures itself when the invocation completes. The helper threads are sampled while the target is
+ * running and once more when it completes. A helper thread that finishes between two samples only contributes the usage
+ * of its last sample, which means that the usage of short-lived helper threads is a lower bound.
+ * <p>
+ * The GC time is the time that the collectors spent while the target was running, which includes collections caused by
+ * other targets running in parallel.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetUsage {
+  public static final long SAMPLE_INTERVAL_MILLIS = 50;
+
+  private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+  private final Map<Long, long[]> helpers = new HashMap<>();
+
+  private final String name;
+
+  private long allocatedBytes = -1;
+
+  private long cpuNanos = -1;
+
+  private long gcMillis;
+
+  public TargetUsage(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return True if the JVM can measure the CPU time of threads.
+   */
+  public static boolean supported() {
+    return threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+  }
+
+  private static long allocatedBytes(long threadId) {
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+      return sunThreadMXBean.getThreadAllocatedBytes(threadId);
+    }
+
+    return -1;
+  }
+
+  private static long gcMillis() {
+    long total = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, collector.getCollectionTime());
+    }
+
+    return total;
+  }
+
+  /**
+   * Runs the invocation of the target on a new thread and waits for it to complete while sampling the helper threads.
+   * Anything the invocation throws is rethrown on the calling thread.
+   *
+   * @param invocation The invocation of the target.
+   */
+  public void run(Runnable invocation) {
+    long gcStart = gcMillis();
+    Throwable[] failure = new Throwable[1];
+    // A daemon group is destroyed once all of its threads have terminated, so the groups don't pile up in the daemon
+    ThreadGroup group = new ThreadGroup("savant-target-" + name);
+    group.setDaemon(true);
+    Thread thread = new Thread(group, () -> {
+      try {
+        invocation.run();
+      } catch (Throwable t) {
+        failure[0] = t;
+      } finally {
+        cpuNanos = threadMXBean.getCurrentThreadCpuTime();
+        allocatedBytes = allocatedBytes(Thread.currentThread().getId());
+      }
+    }, "savant-target-" + name);
+
+    thread.start();
+    try {
+      while (thread.isAlive()) {
+        thread.join(SAMPLE_INTERVAL_MILLIS);
+        sample(group, thread);
+      }
+    } catch (InterruptedException e) {
+      thread.interrupt();
+      Thread.currentThread().interrupt();
+      throw new BuildRunException("The build was interrupted while running the target [" + name + "]");
+    }
+
+    gcMillis = gcMillis() - gcStart;
+
+    if (failure[0] instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    } else if (failure[0] instanceof Error error) {
+      throw error;
+    } else if (failure[0] != null) {
+      throw new BuildFailureException("Target [" + name + "] failed with an unexpected exception", failure[0]);
+    }
+  }
+
+  /**
+   * @return The usage of the target and its helper threads. This must only be called after {@link #run(Runnable)}.
+   */
+  public BuildTimings.Usage usage() {
+    long cpu = cpuNanos;
+    long allocated = allocatedBytes;
+    for (long[] values : helpers.values()) {
+      cpu += Math.max(0, values[0]);
+      allocated += Math.max(0, values[1]);
+    }
+
+    return new BuildTimings.Usage(cpu, allocatedBytes >= 0 ? allocated : -1, gcMillis, helpers.size());
+  }
+
+  private void sample(ThreadGroup group, Thread targetThread) {
+    Thread[] threads = new Thread[group.activeCount() + 16];
+    int count = group.enumerate(threads, true);
+    for (int i = 0; i < count; i++) {
+      if (threads[i] == targetThread) {
+        continue;
+      }
+
+      // The values are -1 once the thread has terminated, in which case the last sample is kept
+      long threadId = threads[i].getId();
+      long cpu = threadMXBean.getThreadCpuTime(threadId);
+      long allocated = allocatedBytes(threadId);
+      long[] values = helpers.computeIfAbsent(threadId, (key) -> new long[]{0, 0});
+      values[0] = Math.max(values[0], cpu);
+      values[1] = Math.max(values[1], allocated);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the build file compiler and its bytecode cache.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildFileCompilerTest extends BaseUnitTest {
+  @Test
+  public void compile() throws Exception {
+    Path directory = projectDir.resolve("build/test/build-file-compiler");
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+    Path buildFile = directory.resolve("build.savant");
+    Files.writeString(buildFile, "target(name: \"compile\") {\n  println \"Compiling\"\n}\n");
+
+    BuildFileCompiler compiler = new BuildFileCompiler(output, directory.resolve("cache"));
+    String key = compiler.key(buildFile);
+    Class<?> compiled = compiler.compile(buildFile, key);
+    assertEquals(compiled.getName(), "build");
+    assertTrue(ProjectBuildFile.class.isAssignableFrom(compiled));
+    assertTrue(Files.isRegularFile(directory.resolve("cache/" + key + ".classes")));
+
+    // Loaded from the cache by a new class loader
+    Class<?> cached = new BuildFileCompiler(output, directory.resolve("cache")).compile(buildFile, key);
+    assertNotSame(cached, compiled);
+    assertEquals(cached.getName(), "build");
+    assertTrue(ProjectBuildFile.class.isAssignableFrom(cached));
+
+    // A corrupt cache entry is replaced
+    Files.writeString(directory.resolve("cache/" + key + ".classes"), "corrupt");
+    assertEquals(compiler.compile(buildFile, key).getName(), "build");
+
+    Files.writeString(buildFile, "target(name: \"compile\") {\n  println \"Compiling again\"\n}\n");
+    assertNotEquals(compiler.key(buildFile), key);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.parser.groovy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.savantbuild.domain.Version;
+import org.savantbuild.runtime.Switches;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests the configuration cache.
+ *
+ * @author Brian Pontarelli
+ */
+public class ConfigurationCacheTest extends BaseUnitTest {
+  @Test
+  public void storeAndLoad() throws Exception {
+    Path directory = projectDir.resolve("build/test/configuration-cache").toAbsolutePath();
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+    Path buildFile = directory.resolve("build.savant");
+    Files.writeString(buildFile, "// Build file");
+    Path licenseFile = directory.resolve("license-Commercial.txt");
+    Files.writeString(licenseFile, "License");
+
+    Project project = new Project(directory, output);
+    project.group = "org.example";
+    project.name = "example";
+    project.version = new Version("1.0.0");
+    project.targets.put("compile", new Target("compile", "Compiles", () -> {}));
+    Target jar = new Target("jar", null, () -> {}, "compile");
+    jar.inputs = asList("build/classes");
+    project.targets.put("jar", jar);
+
+    ConfigurationInputs inputs = new ConfigurationInputs();
+    inputs.recordEnvironment(System.getenv()).get("HOME");
+    inputs.recordEnvironment(System.getenv()).get("SAVANT_MISSING_VARIABLE");
+    inputs.recordFile(licenseFile);
+
+    ConfigurationCache cache = new ConfigurationCache(output);
+    Switches switches = new Switches();
+    switches.add("skipTests");
+    cache.store(project, "key", inputs, switches);
+
+    Project loaded = cache.load(buildFile, "key", switches);
+    assertEquals(loaded.group, "org.example");
+    assertEquals(loaded.version, new Version("1.0.0"));
+    assertEquals(loaded.targets.keySet(), project.targets.keySet());
+    assertEquals(loaded.targets.get("compile").description, "Compiles");
+    assertNull(loaded.targets.get("jar").description);
+    assertEquals(loaded.targets.get("jar").dependencies, asList("compile"));
+    assertEquals(loaded.targets.get("jar").inputs, asList("build/classes"));
+    assertNull(loaded.targets.get("jar").outputs);
+
+    // Any changed input invalidates the snapshot
+    assertNull(cache.load(buildFile, "other-key", switches));
+    assertNull(cache.load(buildFile, "key", new Switches()));
+
+    inputs.environment.put("HOME", "/some/other/home");
+    cache.store(project, "key", inputs, switches);
+    assertNull(cache.load(buildFile, "key", switches));
+
+    inputs.recordEnvironment(System.getenv()).get("HOME");
+    cache.store(project, "key", inputs, switches);
+    Files.writeString(licenseFile, "Changed");
+    assertNull(cache.load(buildFile, "key", switches));
+  }
+}
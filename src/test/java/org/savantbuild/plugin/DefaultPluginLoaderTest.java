@@ -15,6 +15,14 @@
  */
 package org.savantbuild.plugin;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.savantbuild.BaseUnitTest;
 import org.savantbuild.dep.domain.Artifact;
 import org.savantbuild.dep.domain.License;
@@ -26,11 +34,13 @@ import org.savantbuild.domain.Project;
 import org.savantbuild.domain.Version;
 import org.savantbuild.output.Output;
 import org.savantbuild.output.SystemOutOutput;
+import org.savantbuild.plugin.DefaultPluginLoader.PluginClasspath;
 import org.savantbuild.runtime.RuntimeConfiguration;
 import org.savantbuild.security.MD5;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -131,6 +141,31 @@ public class DefaultPluginLoaderTest extends BaseUnitTest {
     assertSame(plugin.output, output);
   }
 
+  @Test
+  public void loadBatch() {
+    Output output = new SystemOutOutput(false);
+    Project project = makeProject(output);
+    DefaultPluginLoader loader = new DefaultPluginLoader(project, new RuntimeConfiguration(), output);
+
+    Artifact good = new Artifact("org.savantbuild.test:good:0.1.0");
+    Artifact badManifest = new Artifact("org.savantbuild.test:bad-manifest:0.1.0");
+    PluginBatch batch = new PluginBatch(loader);
+    batch.add(good);
+    batch.add(badManifest);
+
+    GoodPlugin plugin = (GoodPlugin) batch.load(good);
+    assertSame(plugin.project, project);
+    assertSame(plugin.output, output);
+
+    // The bad plugin only fails when it is used
+    try {
+      batch.load(badManifest);
+      fail("Should have thrown an exception");
+    } catch (PluginLoadException e) {
+      assertTrue(e.getMessage().contains("The JAR file does not contain a valid Manifest entry for Savant-Plugin-Class"));
+    }
+  }
+
   @Test
   public void loadMissingClass() {
     Output output = new SystemOutOutput(false);
@@ -161,6 +196,59 @@ public class DefaultPluginLoaderTest extends BaseUnitTest {
     }
   }
 
+  @Test
+  public void unusedPluginIsNotAwaited() throws Exception {
+    Output output = new SystemOutOutput(false);
+    Project project = makeProject(output);
+    CountDownLatch busy = new CountDownLatch(DefaultPluginLoader.RESOLVER_THREADS);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Artifact> resolved = new CopyOnWriteArrayList<>();
+    DefaultPluginLoader loader = new DefaultPluginLoader(project, new RuntimeConfiguration(), output) {
+      @Override
+      public PluginClasspath resolveClasspath(Artifact pluginDependency) {
+        resolved.add(pluginDependency);
+        if (pluginDependency.id.project.startsWith("slow")) {
+          busy.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+
+        return new PluginClasspath(pluginDependency, List.of(), Map.of(), "org.savantbuild.plugin.GoodPlugin");
+      }
+    };
+
+    // Keep all the resolvers busy
+    for (int i = 0; i < DefaultPluginLoader.RESOLVER_THREADS; i++) {
+      loader.resolveAsync(new Artifact("org.savantbuild.test:slow-" + i + ":0.1.0"));
+    }
+    busy.await();
+
+    Artifact used = new Artifact("org.savantbuild.test:used:0.1.0");
+    Artifact unused = new Artifact("org.savantbuild.test:unused:0.1.0");
+    CompletableFuture<PluginClasspath> usedResolution = loader.resolveAsync(used);
+    CompletableFuture<PluginClasspath> unusedResolution = loader.resolveAsync(unused);
+
+    // The plugin the build uses doesn't wait for a resolver
+    assertSame(loader.await(usedResolution).artifact(), used);
+
+    // The plugin the build never uses is cancelled when the build exits instead of resolved
+    Thread exit = new Thread(() -> DefaultPluginLoader.awaitResolutions(true));
+    exit.start();
+    try {
+      unusedResolution.get(10, TimeUnit.SECONDS);
+    } catch (CancellationException e) {
+      // Expected
+    }
+
+    release.countDown();
+    exit.join();
+    assertTrue(unusedResolution.isCancelled());
+    assertFalse(resolved.contains(unused));
+  }
+
   private Project makeProject(Output output) {
     Project project = new Project(projectDir, output);
     project.group = "org.savantbuild.test";
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.domain.Artifact;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the lazy plugin handle.
+ *
+ * @author Brian Pontarelli
+ */
+public class LazyPluginTest extends BaseUnitTest {
+  @Test
+  public void assignmentsAreReplayed() {
+    CountingLoader loader = new CountingLoader();
+    LazyPlugin lazy = new LazyPlugin(new Artifact("org.savantbuild.test:settings:0.1.0"), loader);
+
+    // java.settings.javaVersion = "17"
+    InvokerHelper.setProperty(InvokerHelper.getProperty(lazy, "settings"), "javaVersion", "17");
+    InvokerHelper.setProperty(lazy, "name", "lazy");
+    assertFalse(lazy.isLoaded());
+    assertEquals(loader.loads, 0);
+
+    assertEquals(InvokerHelper.invokeMethod(lazy, "describe", null), "lazy:17");
+    assertTrue(lazy.isLoaded());
+    assertEquals(loader.loads, 1);
+
+    // Once loaded everything goes straight to the plugin
+    InvokerHelper.setProperty(InvokerHelper.getProperty(lazy, "settings"), "javaVersion", "21");
+    assertEquals(InvokerHelper.invokeMethod(lazy, "describe", null), "lazy:21");
+    assertSame(InvokerHelper.getProperty(lazy, "settings"), ((SettingsPlugin) lazy.getPlugin()).settings);
+    assertEquals(loader.loads, 1);
+  }
+
+  @Test
+  public void propertyMethodCallLoads() {
+    CountingLoader loader = new CountingLoader();
+    LazyPlugin lazy = new LazyPlugin(new Artifact("org.savantbuild.test:settings:0.1.0"), loader);
+
+    // java.settings.libraries.add("foo")
+    InvokerHelper.invokeMethod(InvokerHelper.getProperty(InvokerHelper.getProperty(lazy, "settings"), "libraries"), "add", "foo");
+    assertTrue(lazy.isLoaded());
+    assertEquals(((SettingsPlugin) lazy.getPlugin()).settings.libraries, List.of("foo"));
+  }
+
+  @Test
+  public void unusedPluginIsNeverLoaded() {
+    CountingLoader loader = new CountingLoader();
+    LazyPlugin lazy = new LazyPlugin(new Artifact("org.savantbuild.test:settings:0.1.0"), loader);
+    InvokerHelper.setProperty(InvokerHelper.getProperty(lazy, "settings"), "javaVersion", "17");
+    assertFalse(lazy.isLoaded());
+    assertEquals(loader.loads, 0);
+  }
+
+  public static class CountingLoader implements PluginLoader {
+    public int loads;
+
+    @Override
+    public Plugin load(Artifact pluginDependency) {
+      loads++;
+      return new SettingsPlugin();
+    }
+  }
+
+  public static class Settings {
+    public String javaVersion;
+
+    public List<String> libraries = new ArrayList<>();
+  }
+
+  public static class SettingsPlugin implements Plugin {
+    public String name;
+
+    public Settings settings = new Settings();
+
+    public String describe() {
+      return name + ":" + settings.javaVersion;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the indexed plugin class loader.
+ *
+ * @author Brian Pontarelli
+ */
+public class PluginClassLoaderTest extends BaseUnitTest {
+  private Path indexDirectory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    indexDirectory = projectDir.resolve("build/test/plugin-class-loader");
+    PathTools.prune(indexDirectory);
+  }
+
+  @Test
+  public void findClassAndResources() throws Exception {
+    Path good = projectDir.resolve("src/test/plugin-repository/org/savantbuild/test/good/0.1.0/good-0.1.0.jar").toAbsolutePath();
+    Path missingClass = projectDir.resolve("src/test/plugin-repository/org/savantbuild/test/missing-class/0.1.0/missing-class-0.1.0.jar").toAbsolutePath();
+    try (PluginClassLoader loader = new PluginClassLoader(List.of(good, missingClass), indexDirectory)) {
+      // findClass is used directly since the test classpath also contains the class
+      Class<?> pluginClass = loader.findClass("org.savantbuild.plugin.GoodPlugin");
+      assertSame(pluginClass.getClassLoader(), loader);
+      assertEquals(pluginClass.getProtectionDomain().getCodeSource().getLocation(), good.toUri().toURL());
+
+      try {
+        loader.findClass("org.savantbuild.plugin.MissingPlugin");
+        fail("Should have thrown an exception");
+      } catch (ClassNotFoundException e) {
+        // Expected
+      }
+
+      // Only the second JAR has this directory
+      URL resource = loader.findResource("META-INF/org/savantbuild/BaseUnitTest.class");
+      assertNotNull(resource);
+      assertTrue(resource.toString().startsWith("jar:" + missingClass.toUri().toURL() + "!/"), resource.toString());
+      assertNull(loader.findResource("META-INF/org/savantbuild/Missing.class"));
+
+      // Both JARs have a manifest
+      assertEquals(Collections.list(loader.findResources("META-INF/MANIFEST.MF")).size(), 2);
+      assertEquals(loader.getURLs().length, 2);
+    }
+
+    // The directories of the JAR files are cached for the next build
+    try (var files = Files.list(indexDirectory)) {
+      assertEquals(files.filter((file) -> file.toString().endsWith(".directories")).count(), 2);
+    }
+
+    assertEquals(PluginClassLoader.directories(good, indexDirectory), PluginClassLoader.directories(good, null));
+  }
+}
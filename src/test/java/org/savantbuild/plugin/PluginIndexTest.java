@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.workflow.FetchWorkflow;
+import org.savantbuild.dep.workflow.ItemSource;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.domain.Version;
+import org.savantbuild.output.Output;
+import org.savantbuild.output.SystemOutOutput;
+import org.savantbuild.runtime.HTTPProcess;
+import org.savantbuild.runtime.RepositoryLookupProcess;
+import org.savantbuild.runtime.RepositoryLookups;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests the plugin resolution index.
+ *
+ * @author Brian Pontarelli
+ */
+public class PluginIndexTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/plugin-index");
+    PathTools.prune(directory);
+    Files.createDirectories(directory.resolve("jars"));
+    Files.writeString(directory.resolve("jars/plugin.jar"), "plugin");
+    Files.writeString(directory.resolve("jars/utils.jar"), "utils");
+  }
+
+  @Test
+  public void getAndPut() throws Exception {
+    Output output = new SystemOutOutput(false);
+    PluginIndex index = new PluginIndex(directory.resolve("index"), output);
+    String key = PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), makeWorkflow(output));
+    assertNull(index.get(key));
+
+    List<Path> classpath = List.of(directory.resolve("jars/plugin.jar").toAbsolutePath(), directory.resolve("jars/utils.jar").toAbsolutePath());
+    Map<Path, List<Path>> dependencies = Map.of(classpath.get(0), List.of(classpath.get(1)));
+    index.put(key, new PluginIndex.Entry(classpath, dependencies, "org.savantbuild.plugin.GoodPlugin"));
+
+    PluginIndex.Entry entry = index.get(key);
+    assertNotNull(entry);
+    assertEquals(entry.classpath(), classpath);
+    assertEquals(entry.dependencies(), dependencies);
+    assertEquals(entry.className(), "org.savantbuild.plugin.GoodPlugin");
+
+    // Republishing a JAR makes the entry stale
+    Path jar = directory.resolve("jars/utils.jar");
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+    assertNull(index.get(key));
+  }
+
+  @Test
+  public void key() {
+    Output output = new SystemOutOutput(false);
+    Workflow workflow = makeWorkflow(output);
+    String key = PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), workflow);
+    assertEquals(PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), workflow), key);
+    assertNotEquals(PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.2.0")), workflow), key);
+
+    // Version mappings change the resolution
+    workflow.mappings.put("org.example:non-semantic-version:1.0.0.Final", new Version("1.0.0"));
+    assertNotEquals(PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), workflow), key);
+
+    // The repositories of the HTTP processes, including the ones in a repository lookup process
+    String savant = PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), lookupWorkflow(output, "https://repository.savantbuild.org"));
+    assertNotEquals(savant, key);
+    assertNotEquals(PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0")), lookupWorkflow(output, "https://repository.example.com")), savant);
+
+    // Integration builds are never indexed
+    assertNull(PluginIndex.key(List.of(new Artifact("org.savantbuild.test:good:0.1.0-{integration}")), workflow));
+  }
+
+  private Workflow lookupWorkflow(Output output, String url) {
+    Workflow workflow = makeWorkflow(output);
+    workflow.fetchWorkflow.processes.add(new RepositoryLookupProcess(output, List.of(
+        new HTTPProcess(output, url, null, null, ItemSource.SAVANT, directory.resolve("downloads"))
+    ), new RepositoryLookups(directory.resolve("repository-lookups.txt"), RepositoryLookups.DEFAULT_TTL, output)));
+    return workflow;
+  }
+
+  private Workflow makeWorkflow(Output output) {
+    String pluginDir = projectDir.resolve("src/test/plugin-repository").toString();
+    return new Workflow(
+        new FetchWorkflow(output, new CacheProcess(output, pluginDir, null, null)),
+        new PublishWorkflow(new CacheProcess(output, pluginDir, null, null)),
+        output
+    );
+  }
+}
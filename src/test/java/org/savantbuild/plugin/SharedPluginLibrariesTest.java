@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.plugin;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.plugin.DefaultPluginLoader.PluginClasspath;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests the shared plugin libraries.
+ *
+ * @author Brian Pontarelli
+ */
+public class SharedPluginLibrariesTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/shared-plugin-libraries").toAbsolutePath();
+    PathTools.prune(directory);
+  }
+
+  @Test
+  public void differentDependencies() throws Exception {
+    Path utils = jar("utils", "1.0.0");
+    Path io1 = jar("io", "1.0.0");
+    Path io2 = jar("io", "2.0.0");
+    PluginClasspath first = plugin("first", List.of(utils, io1), Map.of(utils, List.of(io1)));
+    PluginClasspath second = plugin("second", List.of(utils, io1), Map.of(utils, List.of(io1)));
+    PluginClasspath third = plugin("third", List.of(utils, io2), Map.of(utils, List.of(io2)));
+
+    // utils has different dependencies in the third plugin, so only io 1.0.0 is shared
+    SharedPluginLibraries shared = SharedPluginLibraries.create(List.of(first, second, third), directory.resolve("index"));
+    assertNotNull(shared.classLoader);
+    assertEquals(asList(shared.classLoader.getURLs()), List.of(io1.toUri().toURL()));
+    assertEquals(shared.childClasspath(first), List.of(first.classpath().get(0), utils));
+
+    // The third plugin has a different version of io
+    assertNull(shared.childClasspath(third));
+  }
+
+  @Test
+  public void sharedParent() throws Exception {
+    Path utils = jar("utils", "1.0.0");
+    Path io = jar("io", "1.0.0");
+    PluginClasspath first = plugin("first", List.of(utils, io), Map.of(utils, List.of(io)));
+    PluginClasspath second = plugin("second", List.of(utils, io), Map.of(utils, List.of(io)));
+
+    SharedPluginLibraries shared = SharedPluginLibraries.create(List.of(first, second), directory.resolve("index"));
+    assertNotNull(shared.classLoader);
+    assertEquals(asList(shared.classLoader.getURLs()), List.of(utils.toUri().toURL(), io.toUri().toURL()));
+    assertEquals(shared.childClasspath(first), List.of(first.classpath().get(0)));
+    assertEquals(shared.childClasspath(second), List.of(second.classpath().get(0)));
+
+    // The resources of the shared JAR files are loaded by the parent
+    try (PluginClassLoader child = new PluginClassLoader(shared.childClasspath(first), shared.classLoader, directory.resolve("index"))) {
+      assertEquals(child.getResource("org/example/utils/marker.txt"), shared.classLoader.getResource("org/example/utils/marker.txt"));
+      assertNotNull(child.getResource("org/example/first/marker.txt"));
+      assertNull(shared.classLoader.getResource("org/example/first/marker.txt"));
+    }
+
+    // A plugin that doesn't have anything in common with the others gets its own class loader
+    assertNull(shared.childClasspath(plugin("third", List.of(), Map.of())));
+
+    // Nothing in common
+    assertNull(SharedPluginLibraries.create(List.of(first), directory.resolve("index")).classLoader);
+  }
+
+  private Path jar(String project, String version) throws Exception {
+    Path file = directory.resolve("repository/org/example/" + project + "/" + version + "/" + project + "-" + version + ".jar");
+    Files.createDirectories(file.getParent());
+    try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(file))) {
+      jar.putNextEntry(new JarEntry("org/example/" + project + "/marker.txt"));
+      jar.write(version.getBytes(StandardCharsets.UTF_8));
+      jar.closeEntry();
+    }
+
+    return file;
+  }
+
+  private PluginClasspath plugin(String name, List<Path> libraries, Map<Path, List<Path>> dependencies) throws Exception {
+    Path pluginJar = jar(name, "0.1.0");
+    List<Path> classpath = new ArrayList<>(List.of(pluginJar));
+    classpath.addAll(libraries);
+    Map<Path, List<Path>> allDependencies = new HashMap<>(dependencies);
+    allDependencies.put(pluginJar, libraries);
+    return new PluginClasspath(new Artifact("org.example:" + name + ":0.1.0"), classpath, allDependencies, "org.example." + name + ".Plugin");
+  }
+}
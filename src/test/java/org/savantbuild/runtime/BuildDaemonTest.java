@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.savantbuild.BaseUnitTest;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the build daemon protocol.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildDaemonTest extends BaseUnitTest {
+  @Test
+  public void protocol() throws Exception {
+    Path directory = projectDir.resolve("build/test/daemon").toAbsolutePath();
+    Files.createDirectories(directory);
+    Path socket = directory.resolve("test.sock");
+
+    BuildDaemon daemon = new BuildDaemon(socket, directory);
+    Thread thread = new Thread(() -> {
+      try {
+        daemon.run();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    thread.start();
+
+    for (int i = 0; i < 50 && !Files.exists(socket); i++) {
+      Thread.sleep(100);
+    }
+
+    String response = send(socket, "dir /some/other/project\narg clean\n\n");
+    assertTrue(response.contains("can't run builds in [/some/other/project]"), response);
+    assertTrue(response.endsWith(BuildDaemon.EXIT_MARKER + "1\n"), response);
+
+    response = send(socket, "stop\n\n");
+    assertEquals(response, BuildDaemon.EXIT_MARKER + "0\n");
+
+    thread.join(5_000);
+    assertFalse(thread.isAlive());
+    assertFalse(Files.exists(socket));
+  }
+
+  @Test
+  public void restartWhenEnvironmentDiffers() throws Exception {
+    Path directory = projectDir.resolve("build/test/daemon").toAbsolutePath();
+    Files.createDirectories(directory);
+    Path socket = directory.resolve("environment.sock");
+
+    BuildDaemon daemon = new BuildDaemon(socket, directory);
+    Thread thread = new Thread(() -> {
+      try {
+        daemon.run();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    thread.start();
+
+    for (int i = 0; i < 50 && !Files.exists(socket); i++) {
+      Thread.sleep(100);
+    }
+
+    String response = send(socket, "dir " + directory + "\nenv SAVANT_DAEMON_TEST=true\narg clean\n\n");
+    assertEquals(response, BuildDaemon.RESTART_MARKER + "\n");
+
+    thread.join(5_000);
+    assertFalse(thread.isAlive());
+    assertFalse(Files.exists(socket));
+  }
+
+  private String send(Path socket, String request) throws IOException {
+    try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+      channel.write(ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8)));
+      return new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.domain.Target;
+import org.savantbuild.parser.groovy.ClosureBuildListener;
+import org.testng.annotations.Test;
+
+import groovy.lang.Closure;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the build listener dispatcher.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildListenersTest extends BaseUnitTest {
+  @Test
+  public void dispatch() {
+    BuildListeners listeners = new BuildListeners();
+    assertTrue(listeners.isEmpty());
+
+    // Nothing happens without listeners
+    listeners.parseStarted(Paths.get("build.savant"));
+    listeners.buildFinished(null);
+
+    List<String> events = new ArrayList<>();
+    listeners.add(new BuildListener() {
+      @Override
+      public void targetFinished(Target target) {
+        events.add("first:" + target.name);
+      }
+    });
+    listeners.add(new ClosureBuildListener(Map.of("targetFinished", closure((target) -> events.add("second:" + ((Target) target).name)),
+        "buildFinished", closure((failure) -> events.add("build:" + failure)))));
+    assertFalse(listeners.isEmpty());
+
+    Target target = new Target("compile", "Compiles the project", () -> {
+    });
+    listeners.targetStarted(target);
+    listeners.targetFinished(target);
+    listeners.buildFinished(null);
+    assertEquals(events, List.of("first:compile", "second:compile", "build:null"));
+  }
+
+  private Closure<Object> closure(Function<Object, Object> function) {
+    return new Closure<>(this) {
+      @Override
+      public Object call(Object... args) {
+        return function.apply(args[0]);
+      }
+    };
+  }
+}
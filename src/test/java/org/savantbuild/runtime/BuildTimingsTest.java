@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.output.SystemOutOutput;
+import org.testng.annotations.Test;
+
+import groovy.json.JsonSlurper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the build timings.
+ *
+ * @author Brian Pontarelli
+ */
+public class BuildTimingsTest extends BaseUnitTest {
+  @Test
+  public void jfrEvents() throws Exception {
+    BuildTimings timings = new BuildTimings();
+
+    // Not recording
+    try (BuildTimings.Timer ignore = timings.start("target", "clean", new BuildEvents.TargetExecution("clean"))) {
+      // Nothing
+    }
+
+    Path file = projectDir.resolve("build/test/timings/events.jfr");
+    Files.createDirectories(file.getParent());
+    try (Recording recording = new Recording()) {
+      recording.enable(BuildEvents.TargetExecution.class);
+      recording.enable(BuildEvents.PluginResolution.class);
+      recording.start();
+
+      try (BuildTimings.Timer ignore = timings.start("target", "compile", new BuildEvents.TargetExecution("compile"))) {
+        try (BuildTimings.Timer ignore2 = timings.start("plugin", "Resolve [org.savantbuild.test:good:0.1.0]", new BuildEvents.PluginResolution("org.savantbuild.test:good:0.1.0"))) {
+          Thread.sleep(5);
+        }
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    assertEquals(events.size(), 2);
+    RecordedEvent resolution = events.stream().filter((event) -> event.getEventType().getName().equals("org.savantbuild.PluginResolution")).findFirst().orElseThrow();
+    assertEquals(resolution.getString("plugin"), "org.savantbuild.test:good:0.1.0");
+    assertTrue(resolution.getDuration().toMillis() >= 5);
+    RecordedEvent target = events.stream().filter((event) -> event.getEventType().getName().equals("org.savantbuild.TargetExecution")).findFirst().orElseThrow();
+    assertEquals(target.getString("target"), "compile");
+    assertEquals(timings.spans().size(), 3);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void spans() throws Exception {
+    BuildTimings timings = new BuildTimings();
+    try (BuildTimings.Timer ignore = timings.start("phase", "Evaluate build file")) {
+      try (BuildTimings.Timer ignore2 = timings.start("plugin", "loadPlugin [org.savantbuild.test:good:0.1.0]")) {
+        Thread.sleep(5);
+      }
+    }
+
+    Thread thread = new Thread(() -> {
+      try (BuildTimings.Timer ignore = timings.start("target", "compile")) {
+        // Nothing
+      }
+    }, "worker");
+    thread.start();
+    thread.join();
+
+    List<BuildTimings.Span> spans = timings.spans();
+    assertEquals(spans.size(), 3);
+    assertEquals(spans.get(0).name(), "Evaluate build file");
+    assertEquals(spans.get(1).name(), "loadPlugin [org.savantbuild.test:good:0.1.0]");
+    assertEquals(spans.get(2).name(), "compile");
+    assertEquals(spans.get(2).thread(), "worker");
+    assertTrue(spans.get(0).duration() >= spans.get(1).duration());
+    assertTrue(spans.get(1).duration() >= 5_000_000);
+
+    timings.printSummary(new SystemOutOutput(false));
+
+    Path file = projectDir.resolve("build/test/timings/timings.json");
+    Files.deleteIfExists(file);
+    timings.write(file);
+
+    Map<String, Object> json = (Map<String, Object>) new JsonSlurper().parse(file.toFile());
+    assertTrue(((Number) json.get("totalMicros")).longValue() >= 5_000);
+    List<Map<String, Object>> values = (List<Map<String, Object>>) json.get("spans");
+    assertEquals(values.size(), 3);
+    assertEquals(values.get(0).get("category"), "phase");
+    assertEquals(values.get(2).get("category"), "target");
+    assertEquals(values.get(2).get("thread"), "worker");
+
+    Path traceFile = projectDir.resolve("build/test/timings/trace.json");
+    Files.deleteIfExists(traceFile);
+    timings.writeTrace(traceFile);
+
+    // The spans are complete events on the track of their thread and the threads are named using metadata events
+    Map<String, Object> trace = (Map<String, Object>) new JsonSlurper().parse(traceFile.toFile());
+    List<Map<String, Object>> events = (List<Map<String, Object>>) trace.get("traceEvents");
+    List<Map<String, Object>> complete = events.stream().filter((event) -> event.get("ph").equals("X")).toList();
+    assertEquals(complete.size(), 3);
+    assertEquals(complete.get(0).get("name"), "Evaluate build file");
+    assertEquals(complete.get(0).get("cat"), "phase");
+    assertEquals(((Number) complete.get(0).get("tid")).longValue(), Thread.currentThread().getId());
+    assertEquals(((Number) complete.get(2).get("tid")).longValue(), thread.getId());
+    assertTrue(((Number) complete.get(1).get("dur")).doubleValue() >= 5_000);
+    assertTrue(events.stream().anyMatch((event) -> event.get("name").equals("thread_name") && ((Map<String, Object>) event.get("args")).get("name").equals("worker")));
+  }
+}
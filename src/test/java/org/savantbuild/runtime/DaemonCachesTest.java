@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.plugin.PluginClassLoader;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Tests the caches of the build daemon.
+ *
+ * @author Brian Pontarelli
+ */
+public class DaemonCachesTest extends BaseUnitTest {
+  @Test
+  public void sharedParentIsClosedWithTheLastPlugin() throws Exception {
+    Path directory = projectDir.resolve("build/test/daemon-caches").toAbsolutePath();
+    PathTools.prune(directory);
+    Path utils = jar(directory, "utils");
+    Path first = jar(directory, "first");
+    Path second = jar(directory, "second");
+
+    PluginClassLoader parent = new PluginClassLoader(List.of(utils), null);
+    PluginClassLoader firstLoader = new PluginClassLoader(List.of(first), parent, null);
+    PluginClassLoader secondLoader = new PluginClassLoader(List.of(second), parent, null);
+    DaemonCaches caches = new DaemonCaches();
+    caches.putPlugin(new Artifact("org.example:first:0.1.0"), firstLoader, "org.example.First", List.of(first, utils));
+    caches.putPlugin(new Artifact("org.example:second:0.1.0"), secondLoader, "org.example.Second", List.of(second, utils));
+    assertSame(caches.getPlugin(new Artifact("org.example:first:0.1.0")).classLoader, firstLoader);
+
+    // Republishing the first plugin only closes its own class loader
+    touch(first);
+    assertNull(caches.getPlugin(new Artifact("org.example:first:0.1.0")));
+    assertNull(firstLoader.findResource("org/example/first/marker.txt"));
+    assertNotNull(secondLoader.getResource("org/example/utils/marker.txt"));
+    assertNotNull(secondLoader.findResource("org/example/second/marker.txt"));
+
+    // The parent is closed with the last plugin that uses it
+    touch(second);
+    assertNull(caches.getPlugin(new Artifact("org.example:second:0.1.0")));
+    assertNull(parent.findResource("org/example/utils/marker.txt"));
+  }
+
+  private Path jar(Path directory, String project) throws Exception {
+    Path file = directory.resolve("repository/org/example/" + project + "/0.1.0/" + project + "-0.1.0.jar");
+    Files.createDirectories(file.getParent());
+    try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(file))) {
+      jar.putNextEntry(new JarEntry("org/example/" + project + "/marker.txt"));
+      jar.write(project.getBytes(StandardCharsets.UTF_8));
+      jar.closeEntry();
+    }
+
+    return file;
+  }
+
+  private void touch(Path file) throws Exception {
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+  }
+}
@@ -16,7 +16,10 @@
 package org.savantbuild.runtime;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.savantbuild.BaseUnitTest;
 import org.savantbuild.domain.Project;
@@ -74,6 +77,129 @@ public class DefaultProjectRunnerTest extends BaseUnitTest {
     verify(cleanRunner);
   }
 
+  @Test
+  public void runNotifiesListeners() {
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    RuntimeConfiguration runtimeConfiguration = new RuntimeConfiguration();
+    runtimeConfiguration.listeners.add(new BuildListener() {
+      @Override
+      public void targetFailed(Target target, Throwable failure) {
+        events.add("failed:" + target.name + ":" + failure.getMessage());
+      }
+
+      @Override
+      public void targetFinished(Target target) {
+        events.add("finished:" + target.name);
+      }
+
+      @Override
+      public void targetStarted(Target target) {
+        events.add("started:" + target.name);
+      }
+    });
+
+    Project project = new Project(null, output);
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> events.add("compile")));
+    project.targets.put("test", new Target("test", "Tests the project", () -> {
+      throw new BuildFailureException("Tests failed");
+    }, "compile"));
+    project.targetGraph = targetGraphBuilder.build(project);
+
+    ProjectRunner runner = new DefaultProjectRunner(output, runtimeConfiguration);
+    try {
+      runner.run(project, asList("test"));
+      fail("Should have failed");
+    } catch (BuildFailureException e) {
+      // Expected
+    }
+
+    assertEquals(events, asList("started:compile", "compile", "finished:compile", "started:test", "failed:test:Tests failed"));
+  }
+
+  @Test
+  public void runMeasuresUsage() {
+    Project project = new Project(null, output);
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> assertTrue(Thread.currentThread().getName().startsWith("savant-target-"))));
+    project.targets.put("jar", new Target("jar", "JARs the project", () -> {
+    }, "compile"));
+    project.targetGraph = targetGraphBuilder.build(project);
+
+    RuntimeConfiguration runtimeConfiguration = new RuntimeConfiguration();
+    runtimeConfiguration.printTimings = true;
+    ProjectRunner runner = new DefaultProjectRunner(output, runtimeConfiguration);
+    runner.run(project, asList("jar"));
+
+    List<BuildTimings.Span> spans = runtimeConfiguration.timings.spans();
+    assertEquals(spans.stream().map(BuildTimings.Span::name).toList(), asList("compile", "jar"));
+    if (TargetUsage.supported()) {
+      assertTrue(spans.stream().allMatch((span) -> span.usage() != null && span.usage().cpuNanos() >= 0));
+    }
+  }
+
+  @Test
+  public void runDependenciesInParallel() {
+    List<String> called = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    Runnable branch = () -> {
+      bothRunning.countDown();
+      try {
+        // Both branches must be running at the same time for this to complete
+        assertTrue(bothRunning.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    };
+
+    Project project = new Project(null, output);
+    project.targets.put("clean", new Target("clean", "Cleans the project", () -> called.add("clean")));
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> called.add("compile")));
+    project.targets.put("jar", new Target("jar", "JARs the project", () -> called.add("jar"), "compile"));
+    project.targets.put("doc", new Target("doc", "Documents the project", () -> {
+      branch.run();
+      called.add("doc");
+    }, "compile"));
+    project.targets.put("bundle", new Target("bundle", "Bundles the project", () -> {
+      branch.run();
+      called.add("bundle");
+    }, "jar"));
+    project.targets.put("int", new Target("int", "Integrates the project", () -> called.add("int"), "doc", "bundle"));
+    project.targetGraph = targetGraphBuilder.build(project);
+
+    RuntimeConfiguration runtimeConfiguration = new RuntimeConfiguration();
+    runtimeConfiguration.jobs = 4;
+    ProjectRunner runner = new DefaultProjectRunner(output, runtimeConfiguration);
+    runner.run(project, asList("clean", "int"));
+
+    assertEquals(called.size(), 6);
+    assertEquals(called.get(0), "clean");
+    assertEquals(called.get(1), "compile");
+    assertTrue(called.indexOf("jar") < called.indexOf("bundle"));
+    assertEquals(called.get(5), "int");
+  }
+
+  @Test
+  public void runParallelFailure() {
+    List<String> called = Collections.synchronizedList(new ArrayList<>());
+    Project project = new Project(null, output);
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> {
+      throw new BuildFailureException("Compile failed");
+    }));
+    project.targets.put("test", new Target("test", "Tests the project", () -> called.add("test"), "compile"));
+    project.targetGraph = targetGraphBuilder.build(project);
+
+    RuntimeConfiguration runtimeConfiguration = new RuntimeConfiguration();
+    runtimeConfiguration.jobs = 4;
+    ProjectRunner runner = new DefaultProjectRunner(output, runtimeConfiguration);
+    try {
+      runner.run(project, asList("test"));
+      fail("Should have failed");
+    } catch (BuildFailureException e) {
+      assertEquals(e.getMessage(), "Compile failed");
+    }
+
+    assertTrue(called.isEmpty());
+  }
+
   @Test
   public void runMissingTarget() {
     Runnable cleanRunner = createStrictMock(Runnable.class);
@@ -15,6 +15,7 @@
  */
 package org.savantbuild.runtime;
 
+import java.nio.file.Paths;
 import java.util.HashSet;
 
 import org.savantbuild.BaseUnitTest;
@@ -23,7 +24,9 @@ import org.testng.annotations.Test;
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * Tests the default runtime configuration parser.
@@ -55,5 +58,54 @@ public class DefaultRuntimeConfigurationParserTest extends BaseUnitTest {
     assertEquals(config.targets, asList("foo", "bar"));
     assertEquals(config.switches.booleanSwitches, new HashSet<>(asList("booleanSwitch")));
     assertEquals(config.switches.valueSwitches.get("test"), asList("SomeTest"));
+    assertEquals(config.jobs, 1);
+
+    config = parser.parse("--jobs=4", "clean", "int");
+    assertEquals(config.jobs, 4);
+    assertEquals(config.targets, asList("clean", "int"));
+    assertFalse(config.printPlan);
+    assertTrue(config.switches.booleanSwitches.isEmpty());
+    assertTrue(config.switches.valueSwitches.isEmpty());
+
+    config = parser.parse("--plan", "int");
+    assertTrue(config.printPlan);
+    assertFalse(config.buildCache);
+    assertEquals(config.targets, asList("int"));
+
+    config = parser.parse("--buildCache", "int");
+    assertTrue(config.buildCache);
+    assertFalse(config.printTimings);
+    assertTrue(config.switches.booleanSwitches.isEmpty());
+
+    config = parser.parse("--timings", "int");
+    assertTrue(config.printTimings);
+    assertTrue(config.switches.booleanSwitches.isEmpty());
+    assertNull(config.traceFile);
+
+    assertFalse(config.updateLock);
+
+    config = parser.parse("--updateLock");
+    assertTrue(config.updateLock);
+    assertTrue(config.targets.isEmpty());
+
+    config = parser.parse("--trace", "int");
+    assertEquals(config.traceFile, Paths.get("build/trace.json"));
+
+    config = parser.parse("--trace=/tmp/savant.json", "int");
+    assertEquals(config.traceFile, Paths.get("/tmp/savant.json"));
+    assertTrue(config.switches.valueSwitches.isEmpty());
+  }
+
+  @Test
+  public void parseInvalidJobs() {
+    DefaultRuntimeConfigurationParser parser = new DefaultRuntimeConfigurationParser();
+    for (String value : asList("0", "-2", "four")) {
+      try {
+        parser.parse("--jobs=" + value, "int");
+        fail("Should have failed for [" + value + "]");
+      } catch (BuildRunException e) {
+        assertTrue(e.getMessage().contains("[" + value + "]"));
+      }
+    }
   }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.Dependencies;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.domain.License;
+import org.savantbuild.dep.graph.DependencyGraph;
+import org.savantbuild.dep.workflow.ArtifactMetaDataMissingException;
+import org.savantbuild.dep.workflow.FetchWorkflow;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Version;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the dependency graph cache.
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyGraphCacheTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/dependency-graph-cache");
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+  }
+
+  @Test
+  public void incremental() throws Exception {
+    // Copy the artifacts to a repository that can be modified
+    Path repository = directory.resolve("repository");
+    for (String name : List.of("good", "bad-class")) {
+      Path source = projectDir.resolve("src/test/plugin-repository/org/savantbuild/test/" + name + "/0.1.0");
+      Path target = repository.resolve("org/savantbuild/test/" + name + "/0.1.0");
+      Files.createDirectories(target);
+      try (Stream<Path> files = Files.list(source)) {
+        for (Path file : files.toList()) {
+          Files.copy(file, target.resolve(file.getFileName()));
+        }
+      }
+    }
+
+    DependencyGraphCache cache = new DependencyGraphCache(directory.resolve("cache"), output);
+    Project project = makeProject(repository, new Artifact("org.savantbuild.test:good:0.1.0"));
+    assertEquals(ids(cache.build(project)), Set.of("project", "good"));
+
+    // Removing the metadata of the cached dependency proves that its subtree is reused when a dependency is added
+    PathTools.prune(repository.resolve("org/savantbuild/test/good"));
+    project = makeProject(repository, new Artifact("org.savantbuild.test:good:0.1.0"), new Artifact("org.savantbuild.test:bad-class:0.1.0"));
+    DependencyGraph graph = cache.build(project);
+    assertEquals(ids(graph), Set.of("project", "good", "bad-class"));
+    assertEquals(graph.getOutboundEdges(new DependencyGraph.Dependency(project.toArtifact().id)).size(), 2);
+
+    // Removing a dependency doesn't need any resolution
+    PathTools.prune(repository);
+    project = makeProject(repository, new Artifact("org.savantbuild.test:bad-class:0.1.0"));
+    graph = cache.build(project);
+    assertEquals(ids(graph), Set.of("project", "bad-class"));
+    assertEquals(graph.getOutboundEdges(new DependencyGraph.Dependency(project.toArtifact().id)).get(0).getValue().type, "compile");
+    assertEquals(graph.getOutboundEdges(new DependencyGraph.Dependency(project.toArtifact().id)).get(0).getValue().dependencyVersion, new Version("0.1.0"));
+  }
+
+  @Test
+  public void integration() throws Exception {
+    Path repository = directory.resolve("repository");
+    Path source = projectDir.resolve("src/test/plugin-repository/org/savantbuild/test/good/0.1.0");
+    Path target = repository.resolve("org/savantbuild/test/good/0.1.0");
+    Files.createDirectories(target);
+    try (Stream<Path> files = Files.list(source)) {
+      for (Path file : files.toList()) {
+        Files.copy(file, target.resolve(file.getFileName()));
+      }
+    }
+
+    // A cached graph that contains an integration version is never reused
+    DependencyGraphCache cache = new DependencyGraphCache(directory.resolve("cache"), output);
+    Project project = makeProject(repository, new Artifact("org.savantbuild.test:good:0.1.0"));
+    cache.build(project);
+    Path file;
+    try (Stream<Path> files = Files.list(directory.resolve("cache"))) {
+      file = files.filter((path) -> path.toString().endsWith(".graph")).findFirst().orElseThrow();
+    }
+
+    Files.writeString(file, Files.readString(file).replace(" 0.1.0 ", " 0.1.0-{integration} "));
+    PathTools.prune(repository);
+    try {
+      cache.build(makeProject(repository, new Artifact("org.savantbuild.test:good:0.1.0")));
+      fail("Should have failed");
+    } catch (ArtifactMetaDataMissingException e) {
+      // Expected since the metadata of the cached dependency is gone
+    }
+  }
+
+  private Set<String> ids(DependencyGraph graph) {
+    return graph.values().stream().map((dependency) -> dependency.id.name).collect(Collectors.toSet());
+  }
+
+  private Project makeProject(Path repository, Artifact... dependencies) {
+    Project project = new Project(directory, output);
+    project.group = "org.savantbuild.test";
+    project.name = "project";
+    project.version = new Version("1.0.0");
+    project.licenses.add(License.parse("ApacheV2_0", null));
+    project.dependencies = new Dependencies(new DependencyGroup("compile", true, dependencies));
+    project.workflow = new Workflow(
+        new FetchWorkflow(output, new CacheProcess(output, repository.toString(), null, null)),
+        new PublishWorkflow(new CacheProcess(output, repository.toString(), null, null)),
+        output
+    );
+    return project;
+  }
+}
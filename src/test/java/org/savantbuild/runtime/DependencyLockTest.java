@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.ArtifactID;
+import org.savantbuild.dep.domain.Dependencies;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.domain.License;
+import org.savantbuild.dep.domain.ReifiedArtifact;
+import org.savantbuild.dep.graph.ArtifactGraph;
+import org.savantbuild.dep.workflow.FetchWorkflow;
+import org.savantbuild.dep.workflow.ItemSource;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Version;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the dependency lock file.
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyLockTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/dependency-lock");
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+  }
+
+  @Test
+  public void writeAndApply() throws Exception {
+    Project project = makeProject();
+    ReifiedArtifact leaf = new ReifiedArtifact(new ArtifactID("org.example", "leaf", "leaf", "jar"), new Version("1.0.0"), List.of(License.parse("ApacheV2_0", null)));
+    ReifiedArtifact intermediate = new ReifiedArtifact(new ArtifactID("org.example", "intermediate", "intermediate", "jar"), new Version("2.1.0"),
+        List.of(License.parse("Commercial", "Custom license text\nwith two lines")));
+    ArtifactGraph graph = new ArtifactGraph(project.toArtifact());
+    graph.addEdge(project.toArtifact(), intermediate, "compile");
+    graph.addEdge(project.toArtifact(), leaf, "test-compile");
+    graph.addEdge(intermediate, leaf, "runtime");
+
+    Path file = directory.resolve(DependencyLock.FILE_NAME);
+    new DependencyLock(file, output).write(project, graph);
+    assertTrue(Files.readString(file).contains("artifact org.example:leaf:leaf:1.0.0:jar ApacheV2_0\n"));
+
+    Project loaded = makeProject();
+    assertTrue(new DependencyLock(file, output).apply(loaded));
+    assertEquals(loaded.artifactGraph.root, project.toArtifact());
+    assertEquals(loaded.artifactGraph.values(), graph.values());
+    assertEquals(loaded.artifactGraph.getOutboundEdges(project.toArtifact()).size(), 2);
+    assertEquals(loaded.artifactGraph.getOutboundEdges(intermediate).get(0).getDestination(), leaf);
+    assertEquals(loaded.artifactGraph.getOutboundEdges(intermediate).get(0).getValue(), "runtime");
+
+    ReifiedArtifact loadedIntermediate = loaded.artifactGraph.getOutboundEdges(project.toArtifact()).get(0).getDestination();
+    assertEquals(loadedIntermediate.licenses, List.of(License.parse("Commercial", "Custom license text\nwith two lines")));
+
+    // Changing the dependencies or the version mappings makes the lock file stale
+    Project changed = makeProject();
+    changed.dependencies.groups.get("compile").dependencies.add(new Artifact("org.example:other:1.0.0"));
+    assertFalse(new DependencyLock(file, output).apply(changed));
+    assertNull(changed.artifactGraph);
+  }
+
+  @Test
+  public void hashes() throws Exception {
+    Path repository = projectDir.resolve("src/test/plugin-repository");
+    Project project = makeProject(repository);
+    ReifiedArtifact good = new ReifiedArtifact(new ArtifactID("org.savantbuild.test", "good", "good", "jar"), new Version("0.1.0"), List.of(License.parse("ApacheV2_0", null)));
+    ArtifactGraph graph = new ArtifactGraph(project.toArtifact());
+    graph.addEdge(project.toArtifact(), good, "compile");
+
+    Path file = directory.resolve(DependencyLock.FILE_NAME);
+    new DependencyLock(file, output).write(project, graph);
+    String hash = DependencyLock.hash(repository.resolve("org/savantbuild/test/good/0.1.0/good-0.1.0.jar"));
+    assertTrue(Files.readString(file).contains("hash 1 " + hash + "\n"));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(files.map((path) -> path.getFileName().toString()).toList(), List.of(DependencyLock.FILE_NAME));
+    }
+
+    // Applying the lock file verifies the artifacts that the workflow fetches
+    Project loaded = makeProject(repository);
+    assertTrue(new DependencyLock(file, output).apply(loaded));
+    assertEquals(loaded.workflow.fetchWorkflow.processes.size(), 1);
+    assertTrue(loaded.workflow.fetchWorkflow.processes.get(0) instanceof LockVerificationProcess);
+
+    RepositoryServer server = new RepositoryServer(repository, 0);
+    server.start();
+    try {
+      ResolvableItem item = new ResolvableItem("org.savantbuild.test", "good", "good", "0.1.0", "good-0.1.0.jar");
+      String cache = directory.resolve("cache").toString();
+      PublishWorkflow publishWorkflow = new PublishWorkflow(new CacheProcess(output, cache, cache, cache));
+      List<Process> processes = List.of(new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads")));
+      assertNotNull(new LockVerificationProcess(processes, Map.of(LockVerificationProcess.key(item), hash), file).fetch(item, publishWorkflow));
+
+      try {
+        new LockVerificationProcess(processes, Map.of(LockVerificationProcess.key(item), "0".repeat(64)), file).fetch(item, publishWorkflow);
+        fail("Should have failed");
+      } catch (BuildRunException e) {
+        assertTrue(e.getMessage().contains("--updateLock"));
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void missing() {
+    Project project = makeProject();
+    assertFalse(new DependencyLock(directory.resolve(DependencyLock.FILE_NAME), output).apply(project));
+    assertNull(project.artifactGraph);
+  }
+
+  private Project makeProject(Path repository) {
+    Project project = makeProject();
+    project.dependencies = new Dependencies(new DependencyGroup("compile", true, new Artifact("org.savantbuild.test:good:0.1.0")));
+    project.workflow = new Workflow(
+        new FetchWorkflow(output, new CacheProcess(output, repository.toString(), null, null)),
+        new PublishWorkflow(new CacheProcess(output, repository.toString(), null, null)),
+        output
+    );
+    return project;
+  }
+
+  private Project makeProject() {
+    Project project = new Project(directory, output);
+    project.group = "org.example";
+    project.name = "project";
+    project.version = new Version("1.0.0");
+    project.licenses.add(License.parse("ApacheV2_0", null));
+    project.dependencies = new Dependencies(new DependencyGroup("compile", true, new Artifact("org.example:intermediate:2.1.0")),
+        new DependencyGroup("test-compile", false, new Artifact("org.example:leaf:1.0.0")));
+    return project;
+  }
+}
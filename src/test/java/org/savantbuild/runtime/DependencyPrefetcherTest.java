@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.domain.Artifact;
+import org.savantbuild.dep.domain.Dependencies;
+import org.savantbuild.dep.domain.DependencyGroup;
+import org.savantbuild.dep.workflow.FetchWorkflow;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.Workflow;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.domain.Project;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests the dependency prefetcher.
+ *
+ * @author Brian Pontarelli
+ */
+public class DependencyPrefetcherTest extends BaseUnitTest {
+  @Test
+  public void prefetch() {
+    String repository = projectDir.resolve("src/test/plugin-repository").toString();
+    Workflow workflow = new Workflow(
+        new FetchWorkflow(output, new CacheProcess(output, repository, null, null)),
+        new PublishWorkflow(new CacheProcess(output, repository, null, null)),
+        output
+    );
+
+    // Missing artifacts are left for the resolution to report and duplicates are only fetched once
+    Dependencies dependencies = new Dependencies(
+        new DependencyGroup("compile", true, new Artifact("org.savantbuild.test:good:0.1.0"), new Artifact("org.savantbuild.test:bad-class:0.1.0")),
+        new DependencyGroup("runtime", true, new Artifact("org.savantbuild.test:missing:0.1.0")),
+        new DependencyGroup("test-compile", false, new Artifact("org.savantbuild.test:good:0.1.0"))
+    );
+    assertEquals(new DependencyPrefetcher(workflow, 4, output).prefetch(dependencies), 2);
+    assertEquals(new DependencyPrefetcher(workflow, 1, output).prefetch(new Dependencies()), 0);
+  }
+
+  @Test
+  public void prefetchProcess() throws Exception {
+    String repository = projectDir.resolve("src/test/plugin-repository").toString();
+    Project project = new Project(projectDir, output);
+    project.fetchConcurrency = 4;
+    project.dependencies = new Dependencies(new DependencyGroup("compile", true, new Artifact("org.savantbuild.test:good:0.1.0")));
+    project.workflow = new Workflow(
+        new FetchWorkflow(output, new CacheProcess(output, repository, null, null)),
+        new PublishWorkflow(new CacheProcess(output, repository, null, null)),
+        output
+    );
+
+    // Only the resolution of the project's dependencies starts the prefetch and it only runs once
+    BuildTimings timings = new BuildTimings();
+    PrefetchProcess process = new PrefetchProcess(project, timings, output);
+    PublishWorkflow publishWorkflow = project.workflow.publishWorkflow;
+    assertNull(process.fetch(new ResolvableItem("org.savantbuild.test", "bad-class", "bad-class", "0.1.0", "bad-class-0.1.0.jar.amd"), publishWorkflow));
+    assertEquals(prefetches(timings), 0);
+    assertNull(process.fetch(new ResolvableItem("org.savantbuild.test", "good", "good", "0.1.0", "good-0.1.0.jar.amd"), publishWorkflow));
+    assertEquals(prefetches(timings), 1);
+    assertNull(process.fetch(new ResolvableItem("org.savantbuild.test", "good", "good", "0.1.0", "good-0.1.0.jar"), publishWorkflow));
+    assertEquals(prefetches(timings), 1);
+  }
+
+  private long prefetches(BuildTimings timings) {
+    return timings.spans().stream().filter((span) -> span.name().equals("Prefetch dependencies")).count();
+  }
+}
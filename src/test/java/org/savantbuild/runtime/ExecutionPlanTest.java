@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the execution plan.
+ *
+ * @author Brian Pontarelli
+ */
+public class ExecutionPlanTest extends BaseUnitTest {
+  @Test
+  public void compile() {
+    Project project = makeProject();
+    ExecutionPlan plan = ExecutionPlan.compile(project, asList("clean", "int"));
+    assertEquals(names(plan), asList("clean", "compile", "jar", "test", "doc", "int"));
+    assertEquals(plan.stageEnds, new int[]{1, 6});
+    assertEquals(plan.dependencies[2], new int[]{1});
+    assertEquals(plan.dependencies[5], new int[]{3, 4});
+    assertEquals(plan.dependents[1], new int[]{2, 4});
+    assertEquals(plan.dependents[0], new int[0]);
+  }
+
+  @Test
+  public void compileCycle() {
+    Project project = makeProject();
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> {}, "int"));
+    try {
+      ExecutionPlan.compile(project, asList("int"));
+      fail("Should have failed");
+    } catch (BuildRunException e) {
+      assertTrue(e.getMessage().contains("depends on itself"), e.getMessage());
+    }
+  }
+
+  @Test
+  public void compileDeduplicates() {
+    Project project = makeProject();
+    ExecutionPlan plan = ExecutionPlan.compile(project, asList("jar", "compile", "test", "jar"));
+    assertEquals(names(plan), asList("compile", "jar", "test"));
+    assertEquals(plan.stageEnds, new int[]{2, 2, 3, 3});
+  }
+
+  @Test
+  public void compileMissingTarget() {
+    try {
+      ExecutionPlan.compile(makeProject(), asList("clean", "itn"));
+      fail("Should have failed");
+    } catch (BuildRunException e) {
+      assertTrue(e.getMessage().contains("[itn]"), e.getMessage());
+    }
+  }
+
+  private Project makeProject() {
+    Project project = new Project(null, output);
+    project.targets.put("clean", new Target("clean", "Cleans the project", () -> {}));
+    project.targets.put("compile", new Target("compile", "Compiles the project", () -> {}));
+    project.targets.put("jar", new Target("jar", "JARs the project", () -> {}, "compile"));
+    project.targets.put("test", new Target("test", "Tests the project", () -> {}, "jar"));
+    project.targets.put("doc", new Target("doc", "Documents the project", () -> {}, "compile"));
+    project.targets.put("int", new Target("int", "Integrates the project", () -> {}, "test", "doc", "test"));
+    return project;
+  }
+
+  private List<String> names(ExecutionPlan plan) {
+    List<String> names = new ArrayList<>();
+    for (Target target : plan.targets) {
+      names.add(target.name);
+    }
+    return names;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.domain.BuildCacheConfiguration;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the HTTP build cache using the build cache server.
+ *
+ * @author Brian Pontarelli
+ */
+public class HTTPBuildCacheTest extends BaseUnitTest {
+  private static final String KEY = "0123456789abcdef";
+
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/http-build-cache");
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+  }
+
+  @Test
+  public void getAndPut() throws Exception {
+    BuildCacheServer server = new BuildCacheServer(0, directory.resolve("server"));
+    server.start();
+    try {
+      Path archive = directory.resolve("entry.zip");
+      Files.writeString(archive, "entry");
+
+      BuildCacheConfiguration configuration = new BuildCacheConfiguration("http://localhost:" + server.port(), true);
+      HTTPBuildCache ci = new HTTPBuildCache(output, configuration, new LocalBuildCache(directory.resolve("ci")));
+      assertNull(ci.get(KEY));
+      ci.put(KEY, archive);
+
+      HTTPBuildCache laptop = new HTTPBuildCache(output, new BuildCacheConfiguration("http://localhost:" + server.port() + "/", false),
+          new LocalBuildCache(directory.resolve("laptop")));
+      Path file = laptop.get(KEY);
+      assertEquals(Files.readString(file), "entry");
+      assertTrue(file.startsWith(directory.resolve("laptop")));
+      assertFalse(ci.isDisabled());
+      assertFalse(laptop.isDisabled());
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void serverError() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+    server.createContext("/", (exchange) -> {
+      exchange.getRequestBody().close();
+      exchange.sendResponseHeaders(500, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      BuildCacheConfiguration configuration = new BuildCacheConfiguration("http://localhost:" + server.getAddress().getPort(), true);
+      HTTPBuildCache cache = new HTTPBuildCache(output, configuration, new LocalBuildCache(directory.resolve("local")));
+      assertNull(cache.get(KEY));
+      assertTrue(cache.isDisabled());
+
+      // The local cache is still used
+      Path archive = directory.resolve("entry.zip");
+      Files.writeString(archive, "entry");
+      cache.put(KEY, archive);
+      assertEquals(Files.readString(cache.get(KEY)), "entry");
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void slowServer() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+    server.createContext("/", (exchange) -> {
+      try {
+        Thread.sleep(5_000);
+      } catch (InterruptedException e) {
+        // Ignore
+      }
+
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      BuildCacheConfiguration configuration = new BuildCacheConfiguration("http://localhost:" + server.getAddress().getPort(), false);
+      configuration.readTimeout = 200;
+      HTTPBuildCache cache = new HTTPBuildCache(output, configuration, new LocalBuildCache(directory.resolve("local")));
+
+      long start = System.currentTimeMillis();
+      assertNull(cache.get(KEY));
+      assertTrue(System.currentTimeMillis() - start < 2_000);
+      assertTrue(cache.isDisabled());
+
+      // Once disabled, the server isn't contacted again
+      start = System.currentTimeMillis();
+      assertNull(cache.get(KEY));
+      assertTrue(System.currentTimeMillis() - start < 100);
+    } finally {
+      server.stop(0);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.workflow.FetchResult;
+import org.savantbuild.dep.workflow.ItemSource;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.savantbuild.dep.workflow.process.Process;
+import org.savantbuild.dep.workflow.process.ProcessFailureException;
+import org.savantbuild.dep.workflow.process.URLProcess;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the HTTP process using a stand-in repository server.
+ *
+ * @author Brian Pontarelli
+ */
+public class HTTPProcessTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/http-process").toAbsolutePath();
+    PathTools.prune(directory);
+    Files.createDirectories(directory);
+  }
+
+  /**
+   * Compares the processes fetching the metadata and JAR files of 500 artifacts from a repository that adds 5
+   * milliseconds of latency to every request. Run it by enabling it.
+   */
+  @Test(enabled = false)
+  public void benchmark() throws Exception {
+    Path repository = directory.resolve("repository");
+    List<ResolvableItem> items = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      Path artifactDirectory = repository.resolve("org/example/benchmark/artifact-" + i + "/1.0.0");
+      Files.createDirectories(artifactDirectory);
+      write(artifactDirectory.resolve("artifact-" + i + "-1.0.0.jar.amd"), "<artifact-meta-data><license type=\"ApacheV2_0\"/><dependencies/></artifact-meta-data>");
+      write(artifactDirectory.resolve("artifact-" + i + "-1.0.0.jar"), "jar ".repeat(16 * 1024));
+      items.add(new ResolvableItem("org.example.benchmark", "artifact-" + i, "artifact-" + i, "1.0.0", "artifact-" + i + "-1.0.0.jar"));
+    }
+
+    RepositoryServer server = new RepositoryServer(repository, 5);
+    server.start();
+    try {
+      benchmark("url() sequential", new URLProcess(output, server.url(), null, null), items, 1);
+      benchmark("http() sequential", new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads-1")), items, 1);
+      benchmark("url() 16 threads", new URLProcess(output, server.url(), null, null), items, 16);
+      benchmark("http() 16 threads", new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads-16")), items, 16);
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void cancelRequests() throws Exception {
+    RepositoryServer server = new RepositoryServer(projectDir.resolve("src/test/plugin-repository"), 0);
+    server.start();
+    try {
+      HTTPProcess process = new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads"));
+      process.fetch(item("good-0.1.0.jar.amd"), publishWorkflow("cache"));
+
+      // The JAR is never fetched, so its download is deleted when the build finishes
+      HTTPProcess.cancelRequests();
+      assertEquals(downloads(), 0);
+
+      // The JAR isn't requested ahead of time if the metadata is missing
+      assertNull(process.fetch(item("good-9.9.9.jar.amd"), publishWorkflow("cache")));
+      assertEquals(downloads(), 0);
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void conditional() throws Exception {
+    RepositoryServer server = new RepositoryServer(projectDir.resolve("src/test/plugin-repository"), 0);
+    server.start();
+    try {
+      HTTPProcess process = new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads"));
+      process.fetch(item("good-0.1.0.jar.amd"), publishWorkflow("cache"));
+      process.fetch(item("good-0.1.0.jar"), publishWorkflow("cache"));
+      assertEquals(server.notModified.get(), 0);
+      assertTrue(Files.isRegularFile(directory.resolve("cache/org/savantbuild/test/good/0.1.0/good-0.1.0.jar.amd.validators")));
+
+      // The files in the cache are revalidated instead of transferred again
+      process = new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads"));
+      FetchResult result = process.fetch(item("good-0.1.0.jar.amd"), publishWorkflow("cache"));
+      process.fetch(item("good-0.1.0.jar"), publishWorkflow("cache"));
+      assertEquals(server.notModified.get(), 4);
+      assertEquals(result.file(), directory.resolve("cache/org/savantbuild/test/good/0.1.0/good-0.1.0.jar.amd"));
+
+      // A new cache directory downloads the files again
+      result = process.fetch(item("good-0.1.0.jar.amd"), publishWorkflow("cache-2"));
+      assertEquals(server.notModified.get(), 4);
+      assertEquals(Files.readString(result.file()), Files.readString(projectDir.resolve("src/test/plugin-repository/org/savantbuild/test/good/0.1.0/good-0.1.0.jar.amd")));
+    } finally {
+      HTTPProcess.cancelRequests();
+      server.stop();
+    }
+  }
+
+  @Test
+  public void md5Mismatch() throws Exception {
+    Path repository = directory.resolve("repository/org/savantbuild/test/good/0.1.0");
+    Files.createDirectories(repository);
+    Files.writeString(repository.resolve("good-0.1.0.jar.amd"), "<artifact-meta-data/>");
+    Files.writeString(repository.resolve("good-0.1.0.jar.amd.md5"), "0123456789abcdef0123456789abcdef");
+
+    RepositoryServer server = new RepositoryServer(directory.resolve("repository"), 0);
+    server.start();
+    try {
+      new HTTPProcess(output, server.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads")).fetch(item("good-0.1.0.jar.amd"), publishWorkflow("cache"));
+      fail("Should have failed");
+    } catch (ProcessFailureException e) {
+      assertTrue(e.getMessage().contains("MD5"));
+      assertTrue(Files.notExists(directory.resolve("cache/org/savantbuild/test/good/0.1.0/good-0.1.0.jar.amd")));
+    } finally {
+      server.stop();
+    }
+  }
+
+  private void benchmark(String name, Process process, List<ResolvableItem> items, int threads) throws Exception {
+    PublishWorkflow publishWorkflow = publishWorkflow("benchmark-cache");
+    PathTools.prune(directory.resolve("benchmark-cache"));
+
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (ResolvableItem item : items) {
+        futures.add(executor.submit(() -> {
+          process.fetch(new ResolvableItem(item, item.item + ".amd"), publishWorkflow);
+          process.fetch(item, publishWorkflow);
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    try (Stream<Path> files = Files.walk(directory.resolve("benchmark-cache"))) {
+      assertEquals(files.filter((file) -> file.toString().endsWith(".jar")).count(), items.size());
+    }
+
+    System.out.printf("%-20s %8.1f ms%n", name, (System.nanoTime() - start) / 1_000_000.0);
+  }
+
+  private long downloads() throws Exception {
+    if (Files.notExists(directory.resolve("downloads"))) {
+      return 0;
+    }
+
+    try (Stream<Path> files = Files.list(directory.resolve("downloads"))) {
+      return files.count();
+    }
+  }
+
+  private ResolvableItem item(String item) {
+    return new ResolvableItem("org.savantbuild.test", "good", "good", "0.1.0", item);
+  }
+
+  private PublishWorkflow publishWorkflow(String cache) {
+    String cacheDirectory = directory.resolve(cache).toString();
+    return new PublishWorkflow(new CacheProcess(output, cacheDirectory, cacheDirectory, cacheDirectory));
+  }
+
+  private void write(Path file, String contents) throws Exception {
+    Files.writeString(file, contents);
+    byte[] md5 = MessageDigest.getInstance("MD5").digest(Files.readAllBytes(file));
+    Files.writeString(file.resolveSibling(file.getFileName() + ".md5"), HexFormat.of().formatHex(md5));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.dep.workflow.ItemSource;
+import org.savantbuild.dep.workflow.PublishWorkflow;
+import org.savantbuild.dep.workflow.ResolvableItem;
+import org.savantbuild.dep.workflow.process.CacheProcess;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the repository lookup process and the repository lookups.
+ *
+ * @author Brian Pontarelli
+ */
+public class RepositoryLookupProcessTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/repository-lookups").toAbsolutePath();
+    PathTools.prune(directory);
+    Files.createDirectories(directory.resolve("empty"));
+  }
+
+  @Test
+  public void fetch() throws Exception {
+    RepositoryServer savant = new RepositoryServer(directory.resolve("empty"), 0);
+    RepositoryServer maven = new RepositoryServer(projectDir.resolve("src/test/plugin-repository"), 0);
+    savant.start();
+    maven.start();
+    try {
+      Path file = directory.resolve("repository-lookups.txt");
+      assertNotNull(process(savant, maven, file).fetch(item("good", "good-0.1.0.jar.amd"), publishWorkflow()));
+      int savantRequests = savant.requests.get();
+      assertTrue(savantRequests > 0);
+
+      // The repository that didn't have the item is skipped, even after the cache is cleared
+      PathTools.prune(directory.resolve("cache"));
+      PathTools.prune(directory.resolve("downloads"));
+      RepositoryLookupProcess process = process(savant, maven, file);
+      assertNotNull(process.fetch(item("good", "good-0.1.0.jar.amd"), publishWorkflow()));
+      assertEquals(savant.requests.get(), savantRequests);
+
+      // Other items of the group are still looked up in the repositories in order
+      assertNotNull(process.fetch(item("bad-class", "bad-class-0.1.0.jar.amd"), publishWorkflow()));
+      assertTrue(savant.requests.get() > savantRequests);
+
+      // Items that no repository has are reported as missing without any requests
+      assertNull(process.fetch(item("good", "good-0.1.0-src.jar"), publishWorkflow()));
+      int mavenRequests = maven.requests.get();
+      savantRequests = savant.requests.get();
+      int lines = Files.readAllLines(file).size();
+      assertNull(process(savant, maven, file).fetch(item("good", "good-0.1.0-src.jar"), publishWorkflow()));
+      assertEquals(maven.requests.get(), mavenRequests);
+      assertEquals(savant.requests.get(), savantRequests);
+      assertEquals(Files.readAllLines(file).size(), lines);
+    } finally {
+      savant.stop();
+      maven.stop();
+    }
+  }
+
+  @Test
+  public void preferGroupRepository() throws Exception {
+    RepositoryServer savant = new RepositoryServer(directory.resolve("empty"), 0);
+    RepositoryServer maven = new RepositoryServer(projectDir.resolve("src/test/plugin-repository"), 0);
+    savant.start();
+    maven.start();
+    try {
+      Path file = directory.resolve("repository-lookups.txt");
+      assertNotNull(process(savant, maven, file, true).fetch(item("good", "good-0.1.0.jar.amd"), publishWorkflow()));
+      int savantRequests = savant.requests.get();
+
+      // The other items of the group are looked up in the repository that served the group first
+      assertNotNull(process(savant, maven, file, true).fetch(item("bad-class", "bad-class-0.1.0.jar.amd"), publishWorkflow()));
+      assertEquals(savant.requests.get(), savantRequests);
+
+      // Unless the option is disabled
+      PathTools.prune(directory.resolve("cache"));
+      assertNotNull(process(savant, maven, file, false).fetch(item("bad-class", "bad-class-0.1.0.jar.amd"), publishWorkflow()));
+      assertTrue(savant.requests.get() > savantRequests);
+    } finally {
+      savant.stop();
+      maven.stop();
+    }
+  }
+
+  @Test
+  public void lookups() throws Exception {
+    Path file = directory.resolve("repository-lookups.txt");
+    RepositoryLookups lookups = new RepositoryLookups(file, Duration.ofHours(1), output);
+    lookups.missing("https://repository.savantbuild.org/", "org/example/example/1.0.0/example-1.0.0.jar.amd");
+    lookups.missing("https://repository.savantbuild.org/", "org/example/example/1.0.0/example-1.0.0.jar");
+    assertEquals(Files.readAllLines(file).size(), 2);
+
+    lookups.served("https://repo1.maven.org/maven2/", "org.example");
+    lookups.served("https://repo1.maven.org/maven2/", "org.example");
+    assertEquals(Files.readAllLines(file).size(), 3);
+
+    lookups = new RepositoryLookups(file, Duration.ofHours(1), output);
+    assertEquals(lookups.preferred("org.example"), "https://repo1.maven.org/maven2/");
+    assertNull(lookups.preferred("org.other"));
+    assertTrue(lookups.isMissing("https://repository.savantbuild.org/", "org/example/example/1.0.0/example-1.0.0.jar.amd"));
+    assertFalse(lookups.isMissing("https://repo1.maven.org/maven2/", "org/example/example/1.0.0/example-1.0.0.jar.amd"));
+
+    // Expired
+    lookups = new RepositoryLookups(file, Duration.ZERO, output);
+    assertFalse(lookups.isMissing("https://repository.savantbuild.org/", "org/example/example/1.0.0/example-1.0.0.jar.amd"));
+  }
+
+  private ResolvableItem item(String project, String item) {
+    return new ResolvableItem("org.savantbuild.test", project, project, "0.1.0", item);
+  }
+
+  private RepositoryLookupProcess process(RepositoryServer savant, RepositoryServer maven, Path file) {
+    return process(savant, maven, file, false);
+  }
+
+  private RepositoryLookupProcess process(RepositoryServer savant, RepositoryServer maven, Path file, boolean preferGroupRepository) {
+    return new RepositoryLookupProcess(output, List.of(
+        new HTTPProcess(output, savant.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads")),
+        new HTTPProcess(output, maven.url(), null, null, ItemSource.SAVANT, directory.resolve("downloads"))
+    ), new RepositoryLookups(file, RepositoryLookups.DEFAULT_TTL, output), preferGroupRepository);
+  }
+
+  private PublishWorkflow publishWorkflow() {
+    String cache = directory.resolve("cache").toString();
+    return new PublishWorkflow(new CacheProcess(output, cache, cache, cache));
+  }
+}
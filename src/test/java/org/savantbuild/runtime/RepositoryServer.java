@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in for a Savant or Maven repository that serves the files of a directory for the tests of the repository
+ * processes. It sends an {@code ETag} for every file and answers conditional requests, and it can add latency to every
+ * request to simulate a remote repository.
+ *
+ * @author Brian Pontarelli
+ */
+public class RepositoryServer {
+  static {
+    // Otherwise the response headers and body are sent in separate packets and every response waits for a delayed ACK
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  public final AtomicInteger notModified = new AtomicInteger();
+
+  public final AtomicInteger requests = new AtomicInteger();
+
+  private final Path directory;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final long latencyMillis;
+
+  private final HttpServer server;
+
+  public RepositoryServer(Path directory, long latencyMillis) throws IOException {
+    this.directory = directory.toAbsolutePath().normalize();
+    this.latencyMillis = latencyMillis;
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/", this::handle);
+    this.server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * @return The URL of the repository.
+   */
+  public String url() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    exchange.getRequestBody().close();
+    try {
+      Thread.sleep(latencyMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    Path file = directory.resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+    if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+      return;
+    }
+
+    String etag = "\"" + Files.size(file) + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+    exchange.getResponseHeaders().add("ETag", etag);
+    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      notModified.incrementAndGet();
+      exchange.sendResponseHeaders(304, -1);
+      exchange.close();
+      return;
+    }
+
+    exchange.sendResponseHeaders(200, Files.size(file));
+    try (OutputStream os = exchange.getResponseBody()) {
+      Files.copy(file, os);
+    }
+  }
+}
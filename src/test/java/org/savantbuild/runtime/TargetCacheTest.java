@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the target cache.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetCacheTest extends BaseUnitTest {
+  private Path directory;
+
+  private Project project;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/target-cache");
+    PathTools.prune(directory);
+    Files.createDirectories(directory.resolve("src"));
+    Files.writeString(directory.resolve("src/Main.java"), "class Main {}");
+    Files.writeString(directory.resolve("build.savant"), "project(group: \"org.example\", name: \"test\", version: \"1.0\")");
+
+    project = new Project(directory, output);
+    project.buildFile = directory.resolve("build.savant");
+  }
+
+  @Test
+  public void key() throws Exception {
+    Target target = makeTarget();
+    String key = newCache(new Switches()).key(target);
+    assertEquals(newCache(new Switches()).key(target), key);
+
+    Switches switches = new Switches();
+    switches.add("skipTests");
+    assertNotEquals(newCache(switches).key(target), key);
+
+    Files.writeString(directory.resolve("src/Main.java"), "class Main { }");
+    assertNotEquals(newCache(new Switches()).key(target), key);
+  }
+
+  @Test
+  public void storeAndRestore() throws Exception {
+    Target target = makeTarget();
+    TargetCache cache = newCache(new Switches());
+    String key = cache.key(target);
+    assertFalse(cache.restore(target, key));
+
+    Files.createDirectories(directory.resolve("out/classes"));
+    Files.writeString(directory.resolve("out/classes/Main.class"), "compiled");
+    cache.store(target, key, "Compiled [1] Java classes\n");
+
+    Files.writeString(directory.resolve("out/classes/Main.class"), "changed");
+    Files.writeString(directory.resolve("out/classes/Stale.class"), "stale");
+    assertTrue(cache.restore(target, key));
+    assertEquals(Files.readString(directory.resolve("out/classes/Main.class")), "compiled");
+    assertFalse(Files.exists(directory.resolve("out/classes/Stale.class")));
+  }
+
+  private Target makeTarget() {
+    Target target = new Target("compile", "Compiles", () -> {});
+    target.inputs = asList("src");
+    target.outputs = asList("out");
+    return target;
+  }
+
+  private TargetCache newCache(Switches switches) {
+    return new TargetCache(project, switches, new TargetFingerprints(directory), new LocalBuildCache(directory.resolve("cache")));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.savantbuild.BaseUnitTest;
+import org.savantbuild.dep.PathTools;
+import org.savantbuild.domain.Project;
+import org.savantbuild.domain.Target;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the target fingerprints and the up-to-date checks of the project runner.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetFingerprintsTest extends BaseUnitTest {
+  private Path directory;
+
+  @BeforeMethod
+  public void beforeMethod() throws Exception {
+    directory = projectDir.resolve("build/test/fingerprints");
+    PathTools.prune(directory);
+    Files.createDirectories(directory.resolve("src"));
+    Files.writeString(directory.resolve("src/Main.java"), "class Main {}");
+  }
+
+  @Test
+  public void buildFileAndSwitchesChange() throws Exception {
+    List<String> runs = new ArrayList<>();
+    Project project = new Project(directory, output);
+    project.buildFile = directory.resolve("build.savant");
+    Files.writeString(project.buildFile, "target(name: \"compile\") { java.compile() }");
+    Target target = makeTarget();
+    target.invocation = () -> runs.add("compile");
+    project.targets.put("compile", target);
+
+    RuntimeConfiguration runtimeConfiguration = new RuntimeConfiguration();
+    DefaultProjectRunner runner = new DefaultProjectRunner(output, runtimeConfiguration);
+    runner.run(project, asList("compile"));
+    runner.run(project, asList("compile"));
+    assertEquals(runs, asList("compile"));
+
+    // Editing the build file (i.e. the closure of the target or a plugin setting) runs the target again
+    Files.writeString(project.buildFile, "target(name: \"compile\") { java.compile(debug: true) }");
+    runner.run(project, asList("compile"));
+    runner.run(project, asList("compile"));
+    assertEquals(runs, asList("compile", "compile"));
+
+    // Different switches run the target again
+    runtimeConfiguration.switches.add("debug");
+    runner.run(project, asList("compile"));
+    assertEquals(runs, asList("compile", "compile", "compile"));
+  }
+
+  @Test
+  public void isUpToDate() throws Exception {
+    TargetFingerprints fingerprints = new TargetFingerprints(directory);
+    Target target = makeTarget();
+    assertFalse(fingerprints.isUpToDate(target));
+
+    Files.createDirectories(directory.resolve("out"));
+    Files.writeString(directory.resolve("out/Main.class"), "compiled");
+    fingerprints.record(target);
+    assertTrue(fingerprints.isUpToDate(target));
+
+    // Touching a file doesn't change its contents
+    Path source = directory.resolve("src/Main.java");
+    Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 10_000));
+    assertTrue(fingerprints.isUpToDate(target));
+
+    Files.writeString(source, "class Main { }");
+    assertFalse(fingerprints.isUpToDate(target));
+    fingerprints.record(target);
+    assertTrue(fingerprints.isUpToDate(target));
+
+    // Adding an input or deleting an output
+    Files.writeString(directory.resolve("src/Other.java"), "class Other {}");
+    assertFalse(fingerprints.isUpToDate(target));
+    fingerprints.record(target);
+    Files.delete(directory.resolve("out/Main.class"));
+    assertFalse(fingerprints.isUpToDate(target));
+  }
+
+  @Test
+  public void runSkipsUpToDateTargets() {
+    List<String> runs = new ArrayList<>();
+    Project project = new Project(directory, output);
+    Target target = makeTarget();
+    target.invocation = () -> runs.add("compile");
+    project.targets.put("compile", target);
+
+    DefaultProjectRunner runner = new DefaultProjectRunner(output);
+    runner.run(project, asList("compile"));
+    runner.run(project, asList("compile"));
+    assertEquals(runs, asList("compile"));
+
+    // Targets without inputs always run
+    target.inputs = null;
+    runner.run(project, asList("compile"));
+    assertEquals(runs, asList("compile", "compile"));
+  }
+
+  private Target makeTarget() {
+    Target target = new Target("compile", "Compiles", () -> {});
+    target.inputs = asList("src");
+    target.outputs = asList("out");
+    return target;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2025, Inversoft Inc., All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.savantbuild.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.savantbuild.BaseUnitTest;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the target resource usage measurement.
+ *
+ * @author Brian Pontarelli
+ */
+public class TargetUsageTest extends BaseUnitTest {
+  private static volatile Object sink;
+
+  @Test
+  public void failure() {
+    TargetUsage usage = new TargetUsage("fail");
+    try {
+      usage.run(() -> {
+        throw new BuildFailureException("Failed");
+      });
+      fail("Should have thrown an exception");
+    } catch (BuildFailureException e) {
+      assertEquals(e.getMessage(), "Failed");
+    }
+  }
+
+  @Test
+  public void helperThreads() throws Exception {
+    if (!TargetUsage.supported()) {
+      return;
+    }
+
+    TargetUsage usage = new TargetUsage("compile");
+    List<String> threadNames = new ArrayList<>();
+    usage.run(() -> {
+      threadNames.add(Thread.currentThread().getName());
+
+      // The helper stays alive until it has been sampled at least once
+      CountDownLatch done = new CountDownLatch(1);
+      Thread helper = new Thread(() -> {
+        allocateAndSpin(200);
+        done.countDown();
+        sleep(TargetUsage.SAMPLE_INTERVAL_MILLIS * 3);
+      });
+      helper.start();
+
+      try {
+        done.await();
+        helper.join();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    assertEquals(threadNames, List.of("savant-target-compile"));
+
+    BuildTimings.Usage result = usage.usage();
+    assertEquals(result.helperThreads(), 1);
+    assertTrue(result.cpuNanos() >= 100_000_000L, "CPU time was " + result.cpuNanos());
+    assertTrue(result.allocatedBytes() == -1 || result.allocatedBytes() >= 10_000_000L, "Allocated bytes were " + result.allocatedBytes());
+    assertTrue(result.gcMillis() >= 0);
+  }
+
+  private static void allocateAndSpin(long millis) {
+    long end = System.nanoTime() + millis * 1_000_000;
+    while (System.nanoTime() < end) {
+      sink = new byte[1024];
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}